@@ -24,28 +24,44 @@
 
 package org.cqfn.reportwine;
 
-import com.amihaiemil.eoyaml.Yaml;
-import com.amihaiemil.eoyaml.YamlMapping;
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.converters.FileConverter;
 import com.haulmont.yarg.structure.BandData;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
+import org.cqfn.reportwine.converters.IrToDocx4jConverter;
 import org.cqfn.reportwine.converters.IrToYargConverter;
-import org.cqfn.reportwine.converters.YamlToIrConverter;
-import org.cqfn.reportwine.converters.YargToDocx4jConverter;
 import org.cqfn.reportwine.exceptions.BaseException;
 import org.cqfn.reportwine.exceptions.ExpectedSimilarExtensions;
+import org.cqfn.reportwine.formatters.TocUpdate;
 import org.cqfn.reportwine.generators.DocxGenerator;
 import org.cqfn.reportwine.generators.PptxGenerator;
+import org.cqfn.reportwine.generators.StreamingPptxGenerator;
 import org.cqfn.reportwine.model.CodeHandler;
 import org.cqfn.reportwine.model.IrMerger;
 import org.cqfn.reportwine.model.Pair;
+import org.cqfn.reportwine.utils.Compression;
 import org.cqfn.reportwine.utils.ExtensionHandler;
 import org.cqfn.reportwine.utils.FileNameValidator;
+import org.cqfn.reportwine.utils.IrCache;
+import org.cqfn.reportwine.utils.IrLoader;
+import org.cqfn.reportwine.utils.PptxTemplateCache;
+import org.cqfn.reportwine.utils.TemplateCache;
 import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.packages.PresentationMLPackage;
 import org.pptx4j.Pptx4jException;
 
 /**
@@ -59,6 +75,28 @@ public class Main {
      */
     private static final Logger LOG = Logger.getLogger(Main.class.getName());
 
+    /**
+     * The number of threads that load the project, the configuration and the template.
+     */
+    private static final int THREADS = 3;
+
+    /**
+     * The maximum number of parsed input files kept in memory.
+     */
+    private static final int CACHE_SIZE = 16;
+
+    /**
+     * The caches of parsed input files shared by runs in the same process,
+     * one for each combination of the cache directory and the way of computing keys.
+     */
+    private static final Map<String, IrCache> CACHES = new ConcurrentHashMap<>();
+
+    /**
+     * The caches of loaded DOCX templates shared by runs in the same process,
+     * one for each way of computing keys.
+     */
+    private static final Map<Boolean, TemplateCache> TEMPLATES = new ConcurrentHashMap<>();
+
     /**
      * The template file.
      */
@@ -92,20 +130,92 @@ public class Main {
         converter = FileConverter.class,
         required = true,
         arity = 1,
-        description = "The file with project description. Expected extension: .yml"
+        description = "The file with project description. Expected extensions: .yml, .json"
     )
     private File project;
 
     /**
-     * The configuration file.
+     * The configuration files.
      */
     @Parameter(
         names = { "--config", "-c" },
         converter = FileConverter.class,
+        variableArity = true,
+        description = "The files with configuration settings applied in the specified order. "
+            + "Expected extensions: .yml, .json"
+    )
+    private List<File> config;
+
+    /**
+     * The directory to cache parsed input files.
+     */
+    @Parameter(
+        names = { "--cache" },
+        converter = FileConverter.class,
+        arity = 1,
+        description = "The directory to store parsed YAML files. Optional"
+    )
+    private File cache;
+
+    /**
+     * Identifies if cached files are compared by content.
+     */
+    @Parameter(
+        names = { "--cache-by-content" },
+        description = "Compare cached files by the digest of their content instead of "
+            + "their size and modification time. Optional"
+    )
+    private boolean hashing;
+
+    /**
+     * The mode of updating the Table of Contents.
+     */
+    @Parameter(
+        names = { "--toc" },
+        arity = 1,
+        description = "When to update the Table of Contents of DOCX documents: "
+            + "ALWAYS, NEVER or CHANGED (if headings changed). Optional"
+    )
+    private TocUpdate toc = TocUpdate.ALWAYS;
+
+    /**
+     * The compression of parts of the generated document.
+     */
+    @Parameter(
+        names = { "--compression" },
         arity = 1,
-        description = "The file with configuration settings. Expected extension: .yml"
+        description = "The compression of rewritten parts of the generated document: "
+            + "STORED, FAST, DEFAULT or BEST. Optional"
+    )
+    private Compression compression = Compression.DEFAULT;
+
+    /**
+     * Identifies if slides of PPTX documents are rendered in parallel.
+     */
+    @Parameter(
+        names = { "--parallel" },
+        description = "Render slides of PPTX documents in parallel. Optional"
+    )
+    private boolean parallel;
+
+    /**
+     * Identifies if PPTX documents are rendered as streams of XML events.
+     */
+    @Parameter(
+        names = { "--streaming" },
+        description = "Render PPTX documents without loading the template into memory. Optional"
     )
-    private File config;
+    private boolean streaming;
+
+    /**
+     * The maximum number of rows of a table on one slide of PPTX documents.
+     */
+    @Parameter(
+        names = { "--rows-per-slide" },
+        description = "The maximum number of rows of a table on one slide of PPTX documents, "
+            + "the next rows are placed on copies of the slide. Optional"
+    )
+    private int rows;
 
     /**
      * The help option.
@@ -147,50 +257,175 @@ public class Main {
             LOG.warning(exception.getErrorMessage());
         }
         if (!ext.isEmpty()) {
-            final BandData data = this.convertYamlToBandData();
-            switch (ext) {
-                case "docx":
-                    final DocxGenerator docx = new DocxGenerator(data);
-                    docx.renderDocument(this.template, this.output);
-                    LOG.info("DOCX Report generated");
-                    break;
-                case "pptx":
-                    final YargToDocx4jConverter docxfj = new YargToDocx4jConverter(data);
-                    final PptxGenerator pptx =
-                        new PptxGenerator(docxfj.convert(), docxfj.getTables());
-                    try {
-                        pptx.renderDocument(this.template, this.output);
-                        LOG.info("PPTX Report generated");
-                    } catch (final Docx4JException exception) {
-                        LOG.warning("Cannot load pptx template");
-                    } catch (final Pptx4jException exception) {
-                        LOG.warning("Cannot find pptx template slides");
-                    }
-                    break;
-                default:
-                    LOG.info("Report not generated");
-                    break;
+            final ExecutorService executor = Executors.newFixedThreadPool(Main.THREADS);
+            final IrLoader inputs = new IrLoader(this.inputCache());
+            try {
+                this.generate(ext, executor, inputs);
+            } finally {
+                executor.shutdown();
             }
         }
     }
 
+    /**
+     * Returns the cache of parsed input files for the specified cache options.
+     * The cache is shared by runs in the same process, so its in-memory tier
+     * is reused when reports are generated several times.
+     * @return The cache of parsed input files
+     */
+    private IrCache inputCache() {
+        final File directory = this.cache;
+        final boolean content = this.hashing;
+        return Main.CACHES.computeIfAbsent(
+            String.format("%s:%b", directory, content),
+            key -> new IrCache(Main.CACHE_SIZE, directory, content)
+        );
+    }
+
+    /**
+     * Returns the cache of loaded DOCX templates if the cache directory is specified.
+     * The cache is shared by runs in the same process, so a template rendered
+     * several times is read and unmarshalled once.
+     * @return The cache of loaded templates or {@code null} if templates are not cached
+     */
+    private TemplateCache templateCache() {
+        TemplateCache result = null;
+        if (this.cache != null) {
+            result = Main.TEMPLATES.computeIfAbsent(
+                this.hashing,
+                key -> new TemplateCache(Main.CACHE_SIZE, key)
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Generates the report. The template is loaded in parallel with
+     * the processing of YAML files. If the cache directory is specified, a PPTX template
+     * is compiled into it first, and the compiled template is rendered,
+     * and a DOCX template is kept in memory for the next runs in the same process.
+     * @param ext The extension of the template and output files
+     * @param executor The executor to load input files
+     * @param inputs The loader of input files
+     * @throws IOException If an error during input or output actions occurs
+     * @throws BaseException If an error during a document processing occurs
+     */
+    private void generate(
+        final String ext, final ExecutorService executor, final IrLoader inputs)
+        throws IOException, BaseException {
+        Future<PresentationMLPackage> slides = null;
+        File source = this.template;
+        if ("pptx".equals(ext) && this.cache != null) {
+            source = this.compileTemplate();
+        }
+        if ("pptx".equals(ext) && !this.streaming) {
+            final File file = source;
+            slides = executor.submit(() -> PresentationMLPackage.load(file));
+        }
+        final Pair info = this.convertYamlToIr(executor, inputs);
+        switch (ext) {
+            case "docx":
+                final DocxGenerator docx =
+                    new DocxGenerator(
+                        Main.convertIrToBandData(info), this.templateCache(),
+                        this.toc, this.compression
+                    );
+                docx.renderDocument(this.template, this.output);
+                LOG.info("DOCX Report generated");
+                break;
+            case "pptx":
+                final IrToDocx4jConverter docxfj = new IrToDocx4jConverter(info);
+                if (this.streaming) {
+                    new StreamingPptxGenerator(
+                        Main.convertIrToMappings(docxfj), docxfj.getTables(), this.compression
+                    ).renderDocument(source, this.output);
+                    LOG.info("PPTX Report generated");
+                } else {
+                    this.generatePptx(docxfj, slides, source);
+                }
+                break;
+            default:
+                LOG.info("Report not generated");
+                break;
+        }
+    }
+
+    /**
+     * Compiles the PPTX template into the cache directory, if it is not compiled yet.
+     * @return The compiled template or the original one, if it cannot be compiled
+     * @throws IOException If an error during input or output actions occurs
+     */
+    private File compileTemplate() throws IOException {
+        File result = this.template;
+        try {
+            result = new PptxTemplateCache(this.cache, this.hashing).compile(this.template);
+        } catch (final Docx4JException exception) {
+            LOG.warning("Cannot compile pptx template");
+        }
+        return result;
+    }
+
+    /**
+     * Generates the PPTX report from the template loaded into memory.
+     * @param docxfj The converter of the intermediate representation
+     * @param slides The template being loaded
+     * @param source The template file
+     * @throws IOException If an error during input or output actions occurs
+     * @throws BaseException If an error during a document processing occurs
+     */
+    private void generatePptx(final IrToDocx4jConverter docxfj,
+        final Future<PresentationMLPackage> slides, final File source)
+        throws IOException, BaseException {
+        ExecutorService renderer = null;
+        if (this.parallel) {
+            renderer = ForkJoinPool.commonPool();
+        }
+        final PptxGenerator pptx = new PptxGenerator(
+            Main.convertIrToMappings(docxfj), docxfj.getTables(),
+            this.compression, renderer, this.rows
+        );
+        try {
+            pptx.renderDocument(
+                Main.awaitTemplate(slides), source, this.output
+            );
+            LOG.info("PPTX Report generated");
+        } catch (final Docx4JException exception) {
+            LOG.warning("Cannot load pptx template");
+        } catch (final Pptx4jException exception) {
+            LOG.warning("Cannot find pptx template slides");
+        }
+    }
+
     /**
      * Converts YAML description of a project and additional configurations
-     * into the intermediate representation, runs scripts to obtain data and
-     * converts the result into YARG data bindings.
-     * @return The {@link BandData} object with YARG bindings
+     * into the intermediate representation and runs scripts to obtain data.
+     * The project and the configuration files are parsed concurrently and merged
+     * in one pass, in the order they are specified.
+     * @param executor The executor to parse YAML files
+     * @param inputs The loader of input files
+     * @return The intermediate representation of the project data
      * @throws IOException If an error during input or output actions occurs
      * @throws BaseException If an error during a document processing occurs
      */
-    private BandData convertYamlToBandData() throws BaseException, IOException {
+    private Pair convertYamlToIr(
+        final ExecutorService executor, final IrLoader inputs)
+        throws BaseException, IOException {
+        final File description = this.project;
+        final List<Future<Pair>> layers = new LinkedList<>();
+        layers.add(executor.submit(() -> inputs.load(description)));
+        if (this.config != null) {
+            for (final File settings : this.config) {
+                layers.add(executor.submit(() -> inputs.load(settings)));
+            }
+        }
         Pair info = null;
         try {
-            info = Main.convertYamlToIr(this.project);
-            if (this.config != null) {
-                final Pair settings = Main.convertYamlToIr(this.config);
-                final IrMerger merger = new IrMerger();
-                info = merger.merge(info, settings);
+            final List<Pair> overlays = new ArrayList<>(layers.size());
+            for (final Future<Pair> layer : layers) {
+                overlays.add(Main.awaitIr(layer));
             }
+            final IrMerger merger = new IrMerger();
+            info = merger.merge(overlays);
         } catch (final BaseException exception) {
             LOG.warning("Cannot parse YAML data");
             LOG.warning(exception.getErrorMessage());
@@ -200,8 +435,17 @@ public class Main {
             throw exception;
         }
         final CodeHandler handler = new CodeHandler(info);
-        final Pair replaced = handler.process();
-        final IrToYargConverter converter = new IrToYargConverter(replaced);
+        return handler.process();
+    }
+
+    /**
+     * Converts the intermediate representation into YARG data bindings.
+     * @param info The intermediate representation of the project data
+     * @return The {@link BandData} object with YARG bindings
+     * @throws BaseException If an error during a document processing occurs
+     */
+    private static BandData convertIrToBandData(final Pair info) throws BaseException {
+        final IrToYargConverter converter = new IrToYargConverter(info);
         BandData data = null;
         try {
             data = converter.convert();
@@ -214,15 +458,94 @@ public class Main {
     }
 
     /**
-     * Converts the YAML data into the intermediate representation.
-     * @param file The YAML file
+     * Converts the intermediate representation into Docx4j data bindings.
+     * @param converter The converter of the intermediate representation
+     * @return The mapping for Docx4j variable bindings
+     * @throws BaseException If an error during a document processing occurs
+     */
+    private static Map<String, String> convertIrToMappings(final IrToDocx4jConverter converter)
+        throws BaseException {
+        Map<String, String> mappings = null;
+        try {
+            mappings = converter.convert();
+        } catch (final BaseException exception) {
+            LOG.warning("Cannot cast data to pptx bindings");
+            LOG.warning(exception.getErrorMessage());
+            throw exception;
+        }
+        return mappings;
+    }
+
+    /**
+     * Waits for the YAML file to be converted into the intermediate representation.
+     * @param future The result of the asynchronous conversion
      * @return The intermediate representation of the project data
      * @throws IOException If an error during input or output actions occurs
      * @throws BaseException If an error during a document processing occurs
      */
-    private static Pair convertYamlToIr(final File file) throws IOException, BaseException {
-        final YamlMapping yaml = Yaml.createYamlInput(file).readYamlMapping();
-        final YamlToIrConverter conv = new YamlToIrConverter(yaml);
-        return conv.convert();
+    private static Pair awaitIr(final Future<Pair> future) throws IOException, BaseException {
+        final Pair result;
+        try {
+            result = future.get();
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(exception.getMessage());
+        } catch (final ExecutionException exception) {
+            final Throwable cause = exception.getCause();
+            if (cause instanceof BaseException) {
+                throw (BaseException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw Main.unchecked(cause);
+        }
+        return result;
+    }
+
+    /**
+     * Waits for the pptx template to be loaded.
+     * @param future The result of the asynchronous loading
+     * @return The loaded template
+     * @throws IOException If the current thread is interrupted
+     * @throws Docx4JException If an error occurs during loading of pptx template
+     */
+    private static PresentationMLPackage awaitTemplate(
+        final Future<PresentationMLPackage> future) throws IOException, Docx4JException {
+        final PresentationMLPackage result;
+        try {
+            result = future.get();
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(exception.getMessage());
+        } catch (final ExecutionException exception) {
+            final Throwable cause = exception.getCause();
+            if (cause instanceof Docx4JException) {
+                throw (Docx4JException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw Main.unchecked(cause);
+        }
+        return result;
+    }
+
+    /**
+     * Converts an unexpected exception of the asynchronous task into an unchecked exception.
+     * @param cause The cause of the failure
+     * @return The unchecked exception to be thrown
+     */
+    private static RuntimeException unchecked(final Throwable cause) {
+        final RuntimeException result;
+        if (cause instanceof RuntimeException) {
+            result = (RuntimeException) cause;
+        } else {
+            result = new IllegalStateException(cause);
+        }
+        return result;
     }
 }
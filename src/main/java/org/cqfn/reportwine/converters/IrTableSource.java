@@ -0,0 +1,206 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.converters;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import org.cqfn.reportwine.generators.TableSource;
+import org.cqfn.reportwine.model.Array;
+import org.cqfn.reportwine.model.Pair;
+import org.cqfn.reportwine.model.Text;
+import org.cqfn.reportwine.model.Value;
+
+/**
+ * Source of table data that reads rows directly from the intermediate representation (IR).
+ * Rows are converted one by one while a table is filled, so the data of a huge table
+ * is not copied into YARG bands. The IR itself, like the parsed input file,
+ * stays in memory until the document is rendered, so memory usage still grows
+ * with the number of rows.
+ *
+ * @since 0.1
+ */
+final class IrTableSource implements TableSource {
+    /**
+     * The mappings of band names with IR arrays that specify tables.
+     */
+    private final Map<String, Array> tables;
+
+    /**
+     * The mappings of band names with IR arrays of any size to repeat slides.
+     */
+    private final Map<String, Array> bands;
+
+    /**
+     * Constructor.
+     * @param tables The mappings of band names with IR arrays that specify tables
+     * @param bands The mappings of band names with IR arrays of any size,
+     *  including arrays of one item or none that do not specify tables
+     */
+    IrTableSource(final Map<String, Array> tables, final Map<String, Array> bands) {
+        this.tables = tables;
+        this.bands = bands;
+    }
+
+    @Override
+    public Iterable<Map<String, String>> getRows(final String band) {
+        final Array array = this.bands.get(band);
+        Iterable<Map<String, String>> result = null;
+        if (array != null) {
+            result = () -> new Iterator<Map<String, String>>() {
+                private final Iterator<Value> rows = array.getValues().iterator();
+
+                @Override
+                public boolean hasNext() {
+                    return this.rows.hasNext();
+                }
+
+                @Override
+                public Map<String, String> next() {
+                    return IrTableSource.convertRow((Array) this.rows.next());
+                }
+            };
+        }
+        return result;
+    }
+
+    @Override
+    public Iterable<String[]> getRows(final String band, final String[] columns) {
+        final Array array = this.tables.get(band);
+        Iterable<String[]> result = null;
+        if (array != null) {
+            result = () -> new Iterator<String[]>() {
+                private final Iterator<Value> rows = array.getValues().iterator();
+
+                private final int[] positions = new int[columns.length];
+
+                @Override
+                public boolean hasNext() {
+                    return this.rows.hasNext();
+                }
+
+                @Override
+                public String[] next() {
+                    return IrTableSource.convertRow(
+                        (Array) this.rows.next(), columns, this.positions
+                    );
+                }
+            };
+        }
+        return result;
+    }
+
+    /**
+     * Converts the IR row of a table into values of the columns.
+     * Rows usually list their pairs in the same order, so the column of each pair
+     * is remembered by its position and only checked for the next rows;
+     * the columns are searched only if the order changes.
+     * @param row The IR array with pairs of the row
+     * @param columns The names of the columns
+     * @param positions The indexes of the columns plus one by positions of pairs,
+     *  updated while rows are converted
+     * @return The values of the columns
+     */
+    private static String[] convertRow(
+        final Array row, final String[] columns, final int[] positions) {
+        final String[] values = new String[columns.length];
+        int position = 0;
+        for (final Value item : row.getValues()) {
+            if (item instanceof Pair) {
+                final Pair pair = (Pair) item;
+                final int column =
+                    IrTableSource.findColumn(pair.getKey(), columns, positions, position);
+                if (column >= 0) {
+                    values[column] = IrTableSource.getText(pair.getValue());
+                }
+            }
+            position += 1;
+        }
+        return values;
+    }
+
+    /**
+     * Finds the column of the pair, checking the column of the pair at the same position
+     * in the previous row first.
+     * @param key The key of the pair
+     * @param columns The names of the columns
+     * @param positions The indexes of the columns plus one by positions of pairs
+     * @param position The position of the pair in the row
+     * @return The index of the column or -1 if there is no such column
+     */
+    private static int findColumn(
+        final String key, final String[] columns, final int[] positions, final int position) {
+        int column = -1;
+        if (position < positions.length && positions[position] > 0
+            && columns[positions[position] - 1].equals(key)) {
+            column = positions[position] - 1;
+        } else {
+            for (int idx = 0; idx < columns.length; idx += 1) {
+                if (columns[idx].equals(key)) {
+                    column = idx;
+                    break;
+                }
+            }
+            if (column >= 0 && position < positions.length) {
+                positions[position] = column + 1;
+            }
+        }
+        return column;
+    }
+
+    /**
+     * Returns the text of the value of a cell.
+     * @param value The value
+     * @return The text or {@code null} if the value is not a text or a text array
+     */
+    private static String getText(final Value value) {
+        String result = null;
+        if (value instanceof Text) {
+            result = ((Text) value).getValue();
+        } else if (value instanceof Array && ((Array) value).isTextArray()) {
+            result = IrToYargConverter.joinTexts((Array) value);
+        }
+        return result;
+    }
+
+    /**
+     * Converts the IR row of a table into the mapping of variable names to values.
+     * @param row The IR array with pairs of the row
+     * @return The data of the row
+     */
+    private static Map<String, String> convertRow(final Array row) {
+        final Map<String, String> map = new HashMap<>();
+        for (final Value item : row.getValues()) {
+            if (item instanceof Pair) {
+                final Pair pair = (Pair) item;
+                final String text = IrTableSource.getText(pair.getValue());
+                if (text != null) {
+                    map.put(pair.getKey(), text);
+                }
+            }
+        }
+        return map;
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.converters;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.cqfn.reportwine.exceptions.BaseException;
+import org.cqfn.reportwine.generators.TableSource;
+import org.cqfn.reportwine.model.Array;
+import org.cqfn.reportwine.model.Pair;
+import org.cqfn.reportwine.model.Text;
+import org.cqfn.reportwine.model.Value;
+
+/**
+ * Converter from the intermediate representation (IR) to mappings
+ * required for Docx4j variable replacements.
+ * Gives the same result as {@link IrToYargConverter} followed by
+ * {@link YargToDocx4jConverter}, but does not build YARG bands.
+ *
+ * @since 0.1
+ */
+public class IrToDocx4jConverter {
+    /**
+     * The intermediate structure of the document data binding.
+     */
+    private final Pair structure;
+
+    /**
+     * The mappings of band names with IR arrays that specify tables.
+     */
+    private final Map<String, Array> tables;
+
+    /**
+     * The mappings of band names with IR arrays of any size, including arrays
+     * of one item or none that do not specify tables, to repeat slides.
+     */
+    private final Map<String, Array> bands;
+
+    /**
+     * The result Docx4j bindings.
+     */
+    private final Map<String, String> mappings;
+
+    /**
+     * Constructor.
+     * @param structure The intermediate representation of data to be parsed
+     */
+    public IrToDocx4jConverter(final Pair structure) {
+        this.structure = structure;
+        this.tables = new HashMap<>();
+        this.bands = new HashMap<>();
+        this.mappings = new HashMap<>();
+    }
+
+    /**
+     * Converts the IR into Docx4j bindings for variable replacement in pptx template.
+     * @return The mapping for Docx4j variable bindings
+     * @throws BaseException If an error occurs during IR parsing
+     */
+    public Map<String, String> convert() throws BaseException {
+        this.processBand(
+            Collections.singletonList(this.structure), "", this.structure.getKey(), true
+        );
+        return this.mappings;
+    }
+
+    /**
+     * Returns the source of data to fill tables and to repeat slides.
+     * Rows of tables are read from the IR while tables are filled.
+     * @return The source of table rows
+     */
+    public TableSource getTables() {
+        return new IrTableSource(this.tables, this.bands);
+    }
+
+    /**
+     * Processes pairs that belong to one band: collects the data of the band
+     * and then processes nested bands.
+     * @param pairs The IR pairs of the band
+     * @param prefix The prefix of short names in the band, that is empty for the root band
+     * @param full The full name of the band
+     * @param root Identifies if the band is the root one
+     * @throws BaseException If an error occurs during IR parsing
+     */
+    private void processBand(final List<Value> pairs, final String prefix,
+        final String full, final boolean root) throws BaseException {
+        this.processData(pairs, prefix, full, root);
+        this.processChildren(pairs, prefix, full, root);
+    }
+
+    /**
+     * Collects text data of the band.
+     * @param pairs The IR pairs of the band
+     * @param prefix The prefix of short names in the band
+     * @param full The full name of the band
+     * @param root Identifies if the band is the root one
+     */
+    private void processData(final List<Value> pairs, final String prefix,
+        final String full, final boolean root) {
+        for (final Value item : pairs) {
+            if (item instanceof Pair) {
+                final Pair pair = (Pair) item;
+                final Value value = pair.getValue();
+                if (value instanceof Text) {
+                    this.addData(prefix, full, pair.getKey(), ((Text) value).getValue());
+                } else if (value instanceof Array) {
+                    final Array array = (Array) value;
+                    if (array.isTextArray()) {
+                        this.addData(
+                            prefix, full, pair.getKey(), IrToYargConverter.joinTexts(array)
+                        );
+                    } else if (root && array.isPairArray()) {
+                        this.processData(array.getValues(), prefix, full, false);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes nested bands and tables of the band.
+     * @param pairs The IR pairs of the band
+     * @param prefix The prefix of short names in the band
+     * @param full The full name of the band
+     * @param root Identifies if the band is the root one
+     * @throws BaseException If an error occurs during IR parsing
+     */
+    private void processChildren(final List<Value> pairs, final String prefix,
+        final String full, final boolean root) throws BaseException {
+        for (final Value item : pairs) {
+            if (item instanceof Pair) {
+                final Pair pair = (Pair) item;
+                final Value value = pair.getValue();
+                final String key = pair.getKey();
+                final String path = full.concat(".").concat(key);
+                if (value instanceof Pair) {
+                    this.processBand(
+                        Collections.singletonList(value), key.concat("."), path, root
+                    );
+                } else if (value instanceof Array && ((Array) value).size() == 0) {
+                    this.bands.put(prefix.concat(key), (Array) value);
+                    this.bands.put(path, (Array) value);
+                } else if (value instanceof Array && !((Array) value).isTextArray()) {
+                    final Array array = (Array) value;
+                    if (array.isArrayList()) {
+                        this.processTable(array, key, prefix, path);
+                    } else if (array.isPairArray() && root) {
+                        this.processChildren(array.getValues(), prefix, full, false);
+                    } else if (array.isPairArray()) {
+                        this.processBand(array.getValues(), key.concat("."), path, false);
+                    } else {
+                        IrToYargConverter.generateArrayException(array.getValue(0));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes the IR array that specifies a table.
+     * A table with one row is not a table for the renderer, its row is a nested band,
+     * but a slide may still be repeated for it.
+     * @param array The IR array element
+     * @param key The name of the table band
+     * @param prefix The prefix of short names in the parent band
+     * @param path The full name of the table band
+     * @throws BaseException If an error occurs during IR parsing
+     */
+    private void processTable(final Array array, final String key,
+        final String prefix, final String path) throws BaseException {
+        this.bands.put(prefix.concat(key), array);
+        this.bands.put(path, array);
+        if (array.size() == 1) {
+            this.processBand(
+                ((Array) array.getValue(0)).getValues(), key.concat("."), path, false
+            );
+        } else {
+            for (final Value row : array.getValues()) {
+                IrToDocx4jConverter.validate(((Array) row).getValues());
+            }
+            this.tables.put(prefix.concat(key), array);
+            this.tables.put(path, array);
+        }
+    }
+
+    /**
+     * Adds the value to the mappings by its short and full names.
+     * @param prefix The prefix of the short name
+     * @param full The full name of the band
+     * @param key The name of the value
+     * @param value The value
+     */
+    private void addData(
+        final String prefix, final String full, final String key, final String value) {
+        this.mappings.put(prefix.concat(key), value);
+        this.mappings.put(full.concat(".").concat(key), value);
+    }
+
+    /**
+     * Checks that arrays inside the pairs of a table row have a supported structure.
+     * @param pairs The IR pairs
+     * @throws BaseException If an array of mixed elements is found
+     */
+    private static void validate(final List<Value> pairs) throws BaseException {
+        for (final Value item : pairs) {
+            if (item instanceof Pair) {
+                final Value value = ((Pair) item).getValue();
+                if (value instanceof Pair) {
+                    IrToDocx4jConverter.validate(Collections.singletonList(value));
+                } else if (value instanceof Array && !((Array) value).isTextArray()) {
+                    final Array array = (Array) value;
+                    if (array.isArrayList()) {
+                        for (final Value row : array.getValues()) {
+                            IrToDocx4jConverter.validate(((Array) row).getValues());
+                        }
+                    } else if (array.isPairArray()) {
+                        IrToDocx4jConverter.validate(array.getValues());
+                    } else {
+                        IrToYargConverter.generateArrayException(array.getValue(0));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -104,6 +104,15 @@ public class IrToYargConverter {
      */
     private static void processTextArray(
         final String name, final Array array, final BandData result) {
+        result.addData(name, IrToYargConverter.joinTexts(array));
+    }
+
+    /**
+     * Joins values of the text array into a multiline text.
+     * @param array The IR array of texts
+     * @return The text with values separated by a new line
+     */
+    static String joinTexts(final Array array) {
         final StringBuilder builder = new StringBuilder();
         int idx = 1;
         for (final Value item : array.getValues()) {
@@ -113,7 +122,7 @@ public class IrToYargConverter {
             }
             idx += 1;
         }
-        result.addData(name, builder.toString());
+        return builder.toString();
     }
 
     /**
@@ -170,7 +179,7 @@ public class IrToYargConverter {
      * @throws ExpectedArrayList If an array list is expected, but other objects
      *  are found in the list
      */
-    private static void generateArrayException(final Value child)
+    static void generateArrayException(final Value child)
         throws ExpectedTextArray, ExpectedPairArray, ExpectedArrayList {
         if (child instanceof Text) {
             throw new ExpectedTextArray(child.toJsonString());
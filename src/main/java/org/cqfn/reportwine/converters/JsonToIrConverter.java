@@ -0,0 +1,249 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.converters;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import org.cqfn.reportwine.exceptions.BaseException;
+import org.cqfn.reportwine.exceptions.UnsupportedJsonFormat;
+import org.cqfn.reportwine.model.Array;
+import org.cqfn.reportwine.model.Code;
+import org.cqfn.reportwine.model.Pair;
+import org.cqfn.reportwine.model.Text;
+import org.cqfn.reportwine.model.Value;
+
+/**
+ * Converter from the JSON input file to the intermediate representation
+ * that contains bindings for the document template.
+ * The JSON is read as a stream of tokens, so no tree of JSON elements is built.
+ * Objects are converted as in {@link org.cqfn.reportwine.utils.JsonDeserializer},
+ * objects inside arrays are converted into arrays, i.e., table rows, as mappings
+ * inside YAML sequences, and strings that start with {@code $} are converted
+ * into {@link Code}.
+ *
+ * @since 0.1
+ */
+public class JsonToIrConverter {
+    /**
+     * The JSON reader.
+     */
+    private final JsonReader reader;
+
+    /**
+     * The paths or glob patterns of included files.
+     */
+    private final List<String> includes;
+
+    /**
+     * Constructor.
+     * @param source The source of JSON text
+     */
+    public JsonToIrConverter(final Reader source) {
+        this.reader = new JsonReader(source);
+        this.includes = new LinkedList<>();
+    }
+
+    /**
+     * Converts the JSON into internal {@link Pair} structure.
+     * @return The {@link Pair} with data binding or {@code null} if the JSON
+     *  contains only included files
+     * @throws IOException If an error during reading occurs
+     * @throws BaseException If the JSON has unsupported structure
+     */
+    public Pair convert() throws IOException, BaseException {
+        final List<Value> pairs = new LinkedList<>();
+        try {
+            if (this.reader.peek() != JsonToken.BEGIN_OBJECT) {
+                throw UnsupportedJsonFormat.INSTANCE;
+            }
+            this.reader.beginObject();
+            while (this.reader.hasNext()) {
+                final String name = this.reader.nextName();
+                if (YamlToIrConverter.INCLUDE.equals(name)) {
+                    this.readIncludes();
+                } else {
+                    final Value value = this.readValue();
+                    if (value != null) {
+                        pairs.add(new Pair(name, value));
+                    }
+                }
+            }
+            this.reader.endObject();
+        } catch (final IllegalStateException | JsonParseException exception) {
+            throw UnsupportedJsonFormat.INSTANCE;
+        }
+        final Pair result;
+        if (pairs.size() > 1) {
+            result = new Pair("document", new Array(pairs));
+        } else if (pairs.size() == 1) {
+            result = (Pair) pairs.get(0);
+        } else if (this.includes.isEmpty()) {
+            throw UnsupportedJsonFormat.INSTANCE;
+        } else {
+            result = null;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the paths or glob patterns of files included by the JSON file.
+     * The list is filled during the conversion.
+     * @return The list of paths, empty if there is no {@code include} key
+     */
+    public List<String> getIncludes() {
+        return Collections.unmodifiableList(this.includes);
+    }
+
+    /**
+     * Reads the next JSON value.
+     * @return The value or {@code null} if the value is {@code null}
+     * @throws IOException If an error during reading occurs
+     * @throws BaseException If the JSON has unsupported structure
+     */
+    private Value readValue() throws IOException, BaseException {
+        final Value result;
+        switch (this.reader.peek()) {
+            case BEGIN_ARRAY:
+                result = this.readArray();
+                break;
+            case BEGIN_OBJECT:
+                result = this.readObject();
+                break;
+            case STRING:
+                result = JsonToIrConverter.processString(this.reader.nextString());
+                break;
+            case NUMBER:
+                result = new Text(this.reader.nextString());
+                break;
+            case BOOLEAN:
+                result = new Text(String.valueOf(this.reader.nextBoolean()));
+                break;
+            case NULL:
+                this.reader.nextNull();
+                result = null;
+                break;
+            default:
+                throw UnsupportedJsonFormat.INSTANCE;
+        }
+        return result;
+    }
+
+    /**
+     * Reads the JSON array.
+     * @return The array
+     * @throws IOException If an error during reading occurs
+     * @throws BaseException If the JSON has unsupported structure
+     */
+    private Value readArray() throws IOException, BaseException {
+        final List<Value> values = new LinkedList<>();
+        this.reader.beginArray();
+        while (this.reader.hasNext()) {
+            final Value value = this.readValue();
+            if (value instanceof Pair) {
+                values.add(new Array(Collections.singletonList(value)));
+            } else if (value != null) {
+                values.add(value);
+            }
+        }
+        this.reader.endArray();
+        return new Array(values);
+    }
+
+    /**
+     * Reads the JSON object.
+     * @return The pair if the object has one key or an array of pairs otherwise
+     * @throws IOException If an error during reading occurs
+     * @throws BaseException If the JSON has unsupported structure
+     */
+    private Value readObject() throws IOException, BaseException {
+        final List<Value> pairs = new LinkedList<>();
+        this.reader.beginObject();
+        while (this.reader.hasNext()) {
+            final String name = this.reader.nextName();
+            final Value value = this.readValue();
+            if (value != null) {
+                pairs.add(new Pair(name, value));
+            }
+        }
+        this.reader.endObject();
+        final Value result;
+        if (pairs.size() == 1) {
+            result = pairs.get(0);
+        } else {
+            result = new Array(pairs);
+        }
+        return result;
+    }
+
+    /**
+     * Reads the list of included files.
+     * @throws IOException If an error during reading occurs
+     * @throws BaseException If the list has unsupported structure
+     */
+    private void readIncludes() throws IOException, BaseException {
+        if (this.reader.peek() == JsonToken.BEGIN_ARRAY) {
+            this.reader.beginArray();
+            while (this.reader.hasNext()) {
+                this.readInclude();
+            }
+            this.reader.endArray();
+        } else {
+            this.readInclude();
+        }
+    }
+
+    /**
+     * Reads the path of an included file.
+     * @throws IOException If an error during reading occurs
+     * @throws BaseException If the path is not a string
+     */
+    private void readInclude() throws IOException, BaseException {
+        if (this.reader.peek() != JsonToken.STRING) {
+            throw UnsupportedJsonFormat.INSTANCE;
+        }
+        this.includes.add(this.reader.nextString());
+    }
+
+    /**
+     * Processes the JSON string to choose the value type.
+     * @param text The string
+     * @return The {@link Text} or {@link Code} value
+     */
+    private static Value processString(final String text) {
+        final Value value;
+        if (!text.isEmpty() && text.charAt(0) == '$') {
+            value = new Code(text.substring(1));
+        } else {
+            value = new Text(text);
+        }
+        return value;
+    }
+}
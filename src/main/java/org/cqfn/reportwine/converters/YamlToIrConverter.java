@@ -26,7 +26,9 @@ package org.cqfn.reportwine.converters;
 
 import com.amihaiemil.eoyaml.Node;
 import com.amihaiemil.eoyaml.Scalar;
+import com.amihaiemil.eoyaml.Yaml;
 import com.amihaiemil.eoyaml.YamlMapping;
+import com.amihaiemil.eoyaml.YamlMappingBuilder;
 import com.amihaiemil.eoyaml.YamlNode;
 import com.amihaiemil.eoyaml.YamlSequence;
 import java.util.ArrayList;
@@ -50,6 +52,11 @@ import org.cqfn.reportwine.model.Value;
  * @since 0.1
  */
 public class YamlToIrConverter {
+    /**
+     * The key of the root mapping that lists included files.
+     */
+    public static final String INCLUDE = "include";
+
     /**
      * The YAML object.
      */
@@ -69,14 +76,15 @@ public class YamlToIrConverter {
      * @throws BaseException If an error occurs during YAML parsing
      */
     public Pair convert() throws BaseException {
-        final Set<YamlNode> keys = this.yaml.keys();
-        YamlMapping mapping = this.yaml;
+        final YamlMapping content = this.content();
+        final Set<YamlNode> keys = content.keys();
+        YamlMapping mapping = content;
         String root = "";
         if (keys.size() > 1) {
             root = "document";
         } else if (keys.size() == 1) {
             root = ((Scalar) keys.stream().findFirst().get()).value();
-            final YamlNode node = this.yaml.value(keys.stream().findFirst().get());
+            final YamlNode node = content.value(keys.stream().findFirst().get());
             if (!node.type().equals(Node.MAPPING)) {
                 throw UnsupportedYamlFormat.INSTANCE;
             }
@@ -87,6 +95,58 @@ public class YamlToIrConverter {
         return item;
     }
 
+    /**
+     * Checks if the YAML file contains data besides the list of included files.
+     * @return Checking result, {@code true} if there is data to be converted
+     *  or {@code false} otherwise
+     */
+    public boolean hasContent() {
+        return !this.content().keys().isEmpty();
+    }
+
+    /**
+     * Returns the paths or glob patterns of files included by the YAML file.
+     * @return The list of paths, empty if there is no {@code include} key
+     * @throws BaseException If the {@code include} key has unsupported value
+     */
+    public List<String> getIncludes() throws BaseException {
+        final List<String> result = new LinkedList<>();
+        final YamlNode node = this.yaml.value(YamlToIrConverter.INCLUDE);
+        if (node != null) {
+            if (node.type().equals(Node.SCALAR)) {
+                result.add(node.asScalar().value());
+            } else if (node.type().equals(Node.SEQUENCE)) {
+                for (final YamlNode item : node.asSequence().values()) {
+                    if (!item.type().equals(Node.SCALAR)) {
+                        throw new ExpectedScalarException(node.toString());
+                    }
+                    result.add(item.asScalar().value());
+                }
+            } else {
+                throw UnsupportedYamlFormat.INSTANCE;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the root YAML mapping without the list of included files.
+     * @return The YAML mapping with data
+     */
+    private YamlMapping content() {
+        YamlMapping result = this.yaml;
+        if (this.yaml.value(YamlToIrConverter.INCLUDE) != null) {
+            YamlMappingBuilder builder = Yaml.createYamlMappingBuilder();
+            for (final YamlNode key : this.yaml.keys()) {
+                if (!YamlToIrConverter.INCLUDE.equals(((Scalar) key).value())) {
+                    builder = builder.add(key, this.yaml.value(key));
+                }
+            }
+            result = builder.build();
+        }
+        return result;
+    }
+
     /**
      * Processes the root of the YAML mapping.
      * @param mapping The root YAML mappping
@@ -101,12 +161,7 @@ public class YamlToIrConverter {
             final Pair object = new Pair(((Scalar) key).value());
             switch (value.type()) {
                 case SCALAR:
-                    object.setValue(
-                        YamlToIrConverter.processYamlScalar(
-                            value.asScalar().value(),
-                            value.asScalar().toString()
-                        )
-                    );
+                    object.setValue(YamlToIrConverter.processYamlScalar(value.asScalar()));
                     break;
                 case MAPPING:
                     object.setValue(this.processYamlMapping(value.asMapping()));
@@ -151,12 +206,7 @@ public class YamlToIrConverter {
                 }
             }
             if (list || node.type().equals(Node.SCALAR)) {
-                values.add(
-                    YamlToIrConverter.processYamlScalar(
-                        node.asScalar().value(),
-                        node.asScalar().toString()
-                    )
-                );
+                values.add(YamlToIrConverter.processYamlScalar(node.asScalar()));
             } else {
                 final Value nested = this.processYamlMapping(seq.yamlMapping(idx));
                 if (nested instanceof Pair) {
@@ -175,33 +225,75 @@ public class YamlToIrConverter {
 
     /**
      * Processes the YAML scalar to choose the value type and prepare value.
-     * @param scalar The scalar value
-     * @param yaml The full YAML scalar with special symbols and indentation
+     * @param node The YAML scalar
      * @return The {@link Text} or {@link Code} value
      */
-    private static Value processYamlScalar(final String scalar, final String yaml) {
+    private static Value processYamlScalar(final Scalar node) {
+        final String scalar = node.value();
         final Value value;
-        final String delimiter;
-        if (yaml.startsWith("---\r\n|") || yaml.startsWith("---\n|")) {
-            delimiter = " ";
+        if (!scalar.isEmpty() && scalar.charAt(0) == '$') {
+            value = new Code(scalar.substring(1));
         } else {
-            delimiter = "";
+            value = new Text(
+                YamlToIrConverter.normalize(scalar, YamlToIrConverter.isLiteral(node))
+            );
         }
-        if (scalar.charAt(0) == '$') {
-            value = new Code(scalar.replaceFirst("\\$", ""));
-        } else {
-            String text = scalar
-                .replaceAll("\r\n", delimiter)
-                .replaceAll("\n", delimiter)
-                .replaceAll("( )+", " ");
-            if (text.charAt(0) == ' ') {
-                text = text.replaceFirst("( )+", "");
+        return value;
+    }
+
+    /**
+     * Checks if the scalar is a literal block scalar.
+     * The style affects only values with line breaks or trailing spaces,
+     * so other scalars are not printed back to YAML.
+     * @param node The YAML scalar
+     * @return Checking result, {@code true} if the scalar is a literal block scalar
+     */
+    private static boolean isLiteral(final Scalar node) {
+        final String scalar = node.value();
+        boolean result = false;
+        if (scalar.indexOf('\n') >= 0 || scalar.endsWith(" ")) {
+            final String yaml = node.toString();
+            result = yaml.startsWith("---\r\n|") || yaml.startsWith("---\n|");
+        }
+        return result;
+    }
+
+    /**
+     * Normalizes the text of the scalar in a single pass: line breaks are replaced
+     * with spaces in literal block scalars and dropped in other ones, sequences of spaces
+     * are collapsed into one space, leading spaces are removed, and trailing space
+     * is removed in literal block scalars.
+     * @param scalar The scalar value
+     * @param literal Identifies if the scalar is a literal block scalar
+     * @return The normalized text
+     */
+    private static String normalize(final String scalar, final boolean literal) {
+        final int length = scalar.length();
+        final StringBuilder builder = new StringBuilder(length);
+        int idx = 0;
+        while (idx < length) {
+            char symbol = scalar.charAt(idx);
+            if (symbol == '\r' && idx + 1 < length && scalar.charAt(idx + 1) == '\n') {
+                symbol = '\n';
+                idx += 1;
             }
-            if (text.charAt(text.length() - 1) == ' ' && " ".equals(delimiter)) {
-                text = text.substring(0, text.length() - 1);
+            if (symbol == '\n' && literal) {
+                symbol = ' ';
             }
-            value = new Text(text);
+            if (symbol == ' ') {
+                final int last = builder.length() - 1;
+                if (last >= 0 && builder.charAt(last) != ' ') {
+                    builder.append(' ');
+                }
+            } else if (symbol != '\n') {
+                builder.append(symbol);
+            }
+            idx += 1;
         }
-        return value;
+        final int last = builder.length() - 1;
+        if (literal && last >= 0 && builder.charAt(last) == ' ') {
+            builder.setLength(last);
+        }
+        return builder.toString();
     }
 }
@@ -66,8 +66,9 @@ public class YargToDocx4jConverter {
      * @return The mapping for Docx4j variable bindings
      */
     public Map<String, String> convert() {
-        this.processBandData(this.root);
-        this.processBandChildren(this.root);
+        final String name = this.root.getName();
+        this.processBandData(this.root, "", name);
+        this.processBandChildren(this.root, "", name);
         return this.mappings;
     }
 
@@ -81,32 +82,26 @@ public class YargToDocx4jConverter {
 
     /**
      * Processes child bands of the BandData object to collect data for tables.
+     * The prefixes of names are passed down, so the names of nested bands are
+     * composed once per band.
      * @param parent The parent BandData to be processed
+     * @param prefix The prefix of short names in the parent band, that is empty for the root band
+     * @param full The full name of the parent band
      */
-    private void processBandChildren(final BandData parent) {
+    private void processBandChildren(
+        final BandData parent, final String prefix, final String full) {
         final Map<String, List<BandData>> map = parent.getChildrenBands();
         for (final Map.Entry<String, List<BandData>> child : map.entrySet()) {
+            final String key = child.getKey();
+            final String path = full.concat(".").concat(key);
             if (child.getValue().size() > 1) {
-                final String tag;
-                if (parent.getParentBand() == null) {
-                    tag = child.getKey();
-                } else {
-                    tag = String.format("%s.%s", parent.getName(), child.getKey());
-                }
-                this.tables.put(
-                    tag,
-                    child.getValue()
-                );
-                this.tables.put(
-                    String.format(
-                        "%s.%s", YargToDocx4jConverter.getFullName(parent), child.getKey()
-                    ),
-                    child.getValue()
-                );
+                this.tables.put(prefix.concat(key), child.getValue());
+                this.tables.put(path, child.getValue());
             } else {
                 final BandData band = child.getValue().get(0);
-                this.processBandData(band);
-                this.processBandChildren(band);
+                final String nested = band.getName().concat(".");
+                this.processBandData(band, nested, path);
+                this.processBandChildren(band, nested, path);
             }
         }
     }
@@ -114,43 +109,17 @@ public class YargToDocx4jConverter {
     /**
      * Processes the BandData object to collect mappings.
      * @param band The BandData to be processed
+     * @param prefix The prefix of short names in the band, that is empty for the root band
+     * @param full The full name of the band
      */
-    private void processBandData(final BandData band) {
+    private void processBandData(final BandData band, final String prefix, final String full) {
+        final String start = full.concat(".");
         for (final Map.Entry<String, Object> data : band.getData().entrySet()) {
             final Object value = data.getValue();
-            final String prefix;
-            if (band.getParentBand() == null) {
-                prefix = "";
-            } else {
-                prefix = String.format("%s.", band.getName());
-            }
             if (value instanceof String) {
-                this.mappings.put(
-                    prefix.concat(data.getKey()),
-                    value.toString()
-                );
-                this.mappings.put(
-                    String.format(
-                        "%s.%s", YargToDocx4jConverter.getFullName(band), data.getKey()
-                    ),
-                    value.toString()
-                );
+                this.mappings.put(prefix.concat(data.getKey()), value.toString());
+                this.mappings.put(start.concat(data.getKey()), value.toString());
             }
         }
     }
-
-    /**
-     * Composes a full name of the mapping tag in the format ${parent.nested1.nested2...nestedN},
-     * where N is the depth of nesting YAML data.
-     * @param band The BandData to be processed
-     * @return The full name of the tag
-     */
-    private static String getFullName(final BandData band) {
-        String full = band.getName();
-        for (BandData parent = band.getParentBand(); parent != null;
-            parent = parent.getParentBand()) {
-            full = String.format("%s.%s", parent.getName(), full);
-        }
-        return full;
-    }
 }
@@ -0,0 +1,62 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.exceptions;
+
+/**
+ * Exception thrown while loading YAML files when a file includes itself
+ * directly or through other included files.
+ *
+ * @since 0.1
+ */
+public final class CyclicInclude extends BaseException {
+    private static final long serialVersionUID = -2081765397321874650L;
+
+    /**
+     * The path to the file.
+     */
+    private final String file;
+
+    /**
+     * Constructor.
+     * @param file The path to the file that is included cyclically
+     */
+    public CyclicInclude(final String file) {
+        super();
+        this.file = file;
+    }
+
+    @Override
+    public String getInitiator() {
+        return "YAML loader";
+    }
+
+    @Override
+    public String getErrorMessage() {
+        return new StringBuilder()
+            .append("The file includes itself: ")
+            .append(this.file)
+            .toString();
+    }
+}
@@ -26,9 +26,17 @@ package org.cqfn.reportwine.formatters;
 
 import com.haulmont.yarg.formatters.factory.FormatterFactoryInput;
 import com.haulmont.yarg.formatters.impl.DocxFormatter;
-import javax.xml.bind.JAXBException;
+import com.haulmont.yarg.formatters.impl.docx.DocumentWrapper;
+import com.haulmont.yarg.formatters.impl.docx.DocxFormatterDelegate;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.xml.bind.JAXBElement;
+import org.cqfn.reportwine.utils.ClassFinder;
+import org.cqfn.reportwine.utils.DocxTemplate;
+import org.cqfn.reportwine.utils.PackageWriter;
 import org.docx4j.TraversalUtil;
-import org.docx4j.XmlUtils;
 import org.docx4j.openpackaging.exceptions.Docx4JException;
 import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPart;
 import org.docx4j.toc.TocException;
@@ -36,7 +44,10 @@ import org.docx4j.toc.TocFinder;
 import org.docx4j.toc.TocGenerator;
 import org.docx4j.wml.Body;
 import org.docx4j.wml.Document;
+import org.docx4j.wml.ObjectFactory;
+import org.docx4j.wml.R;
 import org.docx4j.wml.SdtBlock;
+import org.docx4j.wml.Text;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -57,6 +68,32 @@ public final class CustomDocxFormatter extends DocxFormatter {
      */
     private static final String NEWLINE_CHAR = "¶";
 
+    /**
+     * The factory of WordprocessingML objects.
+     */
+    private static final ObjectFactory FACTORY = new ObjectFactory();
+
+    /**
+     * The loaded template or {@code null} if the template should be loaded by the formatter.
+     */
+    private final DocxTemplate template;
+
+    /**
+     * The mode of updating the Table of Contents.
+     */
+    private final TocUpdate toc;
+
+    /**
+     * The writer of the rendered document or {@code null} if the document is saved by YARG.
+     */
+    private final PackageWriter writer;
+
+    /**
+     * The texts of headings of the template, collected if the Table of Contents is
+     * updated only when headings are changed.
+     */
+    private List<String> headings;
+
     /**
      * Identifies if the document has newline characters.
      */
@@ -67,10 +104,58 @@ public final class CustomDocxFormatter extends DocxFormatter {
      * @param input The formatter factory input
      */
     public CustomDocxFormatter(final FormatterFactoryInput input) {
+        this(input, null, TocUpdate.ALWAYS, null);
+    }
+
+    /**
+     * Constructor with the template that is already loaded.
+     * @param input The formatter factory input
+     * @param template The loaded template, it is modified during rendering,
+     *  or {@code null} to load the template by the formatter
+     * @param toc The mode of updating the Table of Contents
+     */
+    public CustomDocxFormatter(
+        final FormatterFactoryInput input, final DocxTemplate template, final TocUpdate toc) {
+        this(input, template, toc, null);
+    }
+
+    /**
+     * Constructor with the writer that copies unchanged parts of the template
+     * to the rendered document as they are.
+     * @param input The formatter factory input
+     * @param template The loaded template, it is modified during rendering,
+     *  or {@code null} to load the template by the formatter
+     * @param toc The mode of updating the Table of Contents
+     * @param writer The writer of the rendered document or {@code null}
+     *  to save it by YARG
+     */
+    public CustomDocxFormatter(
+        final FormatterFactoryInput input, final DocxTemplate template,
+        final TocUpdate toc, final PackageWriter writer) {
         super(input);
+        this.template = template;
+        this.toc = toc;
+        this.writer = writer;
+        this.headings = Collections.emptyList();
         this.newlines = false;
     }
 
+    @Override
+    protected void loadDocument() {
+        if (this.template == null) {
+            super.loadDocument();
+            if (this.toc == TocUpdate.CHANGED) {
+                this.headings = DocxTemplate.findHeadings(wordprocessingMLPackage);
+            }
+        } else {
+            wordprocessingMLPackage = this.template.getDocument();
+            documentWrapper = new DocumentWrapper(
+                new DocxFormatterDelegate(this), wordprocessingMLPackage
+            );
+            this.headings = this.template.getHeadings();
+        }
+    }
+
     @Override
     public void updateTableOfContents() {
         try {
@@ -78,9 +163,45 @@ public final class CustomDocxFormatter extends DocxFormatter {
             if (this.newlines) {
                 CustomDocxFormatter.replaceNewLines(part);
             }
+            if (this.toc != TocUpdate.NEVER && this.hasToc()
+                && (this.toc == TocUpdate.ALWAYS
+                || !this.headings.equals(DocxTemplate.findHeadings(wordprocessingMLPackage)))) {
+                final TocGenerator generator = new TocGenerator(wordprocessingMLPackage);
+                generator.updateToc(false);
+            }
+        } catch (final TocException exception) {
+            CustomDocxFormatter.LOG.error(
+                "An error occurred during updating the Table Of Contents",
+                exception
+            );
+        }
+    }
+
+    @Override
+    protected void saveAndClose() {
+        if (this.writer == null) {
+            super.saveAndClose();
+        } else {
+            try {
+                this.writer.save(wordprocessingMLPackage, outputStream);
+                outputStream.flush();
+            } catch (final IOException | Docx4JException exception) {
+                throw new IllegalStateException("Cannot save docx document", exception);
+            }
+        }
+    }
+
+    /**
+     * Checks if the document has a Table of Contents.
+     * If the template was loaded before, its Table of Contents is not searched again.
+     * @return Checking result
+     */
+    private boolean hasToc() {
+        final boolean result;
+        if (this.template == null) {
             final Document document;
             try {
-                document = part.getContents();
+                document = wordprocessingMLPackage.getMainDocumentPart().getContents();
             } catch (final Docx4JException exception) {
                 throw new IllegalStateException(exception);
             }
@@ -88,16 +209,11 @@ public final class CustomDocxFormatter extends DocxFormatter {
             final TocFinder finder = new TocFinder();
             new TraversalUtil(body.getContent(), finder);
             final SdtBlock sdt = finder.getTocSDT();
-            if (sdt != null) {
-                final TocGenerator generator = new TocGenerator(wordprocessingMLPackage);
-                generator.updateToc(false);
-            }
-        } catch (final TocException exception) {
-            CustomDocxFormatter.LOG.error(
-                "An error occurred during updating the Table Of Contents",
-                exception
-            );
+            result = sdt != null;
+        } else {
+            result = this.template.hasToc();
         }
+        return result;
     }
 
     @Override
@@ -116,21 +232,98 @@ public final class CustomDocxFormatter extends DocxFormatter {
 
     /**
      * Replaces newline characters with XML tags analogues.
+     * Only text runs that contain the newline character are rewritten, the rest
+     * of the document is not changed.
      * @param part The part of XML document representation
      */
-    private static void replaceNewLines(final MainDocumentPart part) {
+    static void replaceNewLines(final MainDocumentPart part) {
         if (part != null) {
-            String xml = XmlUtils.marshaltoString(part.getJaxbElement(), true, true);
-            xml = xml.replace(CustomDocxFormatter.NEWLINE_CHAR, "</w:t><w:br/><w:t>");
-            Object obj = null;
-            try {
-                obj = XmlUtils.unmarshalString(xml);
-                part.setJaxbElement((Document) obj);
-            } catch (final JAXBException exception) {
-                CustomDocxFormatter.LOG.error(
-                    "An error occurred during replacement of the newline character"
-                );
+            final ClassFinder finder = new ClassFinder(R.class);
+            new TraversalUtil(part.getContent(), finder);
+            for (final Object obj : finder.getObjects()) {
+                final R run = (R) obj;
+                if (CustomDocxFormatter.hasNewLines(run)) {
+                    CustomDocxFormatter.splitRun(run);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if the text of the run contains newline characters.
+     * @param run The run
+     * @return Checking result, {@code true} if the run should be split
+     */
+    private static boolean hasNewLines(final R run) {
+        boolean result = false;
+        for (final Object item : run.getContent()) {
+            if (CustomDocxFormatter.hasNewLines(item)) {
+                result = true;
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the item of the run is a text element that contains newline characters.
+     * @param item The item of the run
+     * @return Checking result
+     */
+    private static boolean hasNewLines(final Object item) {
+        final Text text = CustomDocxFormatter.getText(item);
+        return text != null
+            && text.getValue() != null
+            && text.getValue().contains(CustomDocxFormatter.NEWLINE_CHAR);
+    }
+
+    /**
+     * Returns the text of the item of the run, if the item is a {@code w:t} element.
+     * @param item The item of the run
+     * @return The text or {@code null} if the item is not a text element
+     */
+    private static Text getText(final Object item) {
+        Text result = null;
+        if (item instanceof Text) {
+            result = (Text) item;
+        } else if (item instanceof JAXBElement
+            && "t".equals(((JAXBElement<?>) item).getName().getLocalPart())
+            && ((JAXBElement<?>) item).getValue() instanceof Text) {
+            result = (Text) ((JAXBElement<?>) item).getValue();
+        }
+        return result;
+    }
+
+    /**
+     * Splits text elements of the run by newline characters into texts and line breaks.
+     * @param run The run
+     */
+    private static void splitRun(final R run) {
+        final List<Object> content = run.getContent();
+        final List<Object> result = new ArrayList<>(content.size() + 2);
+        for (final Object item : content) {
+            if (CustomDocxFormatter.hasNewLines(item)) {
+                final Text text = CustomDocxFormatter.getText(item);
+                final String[] lines =
+                    text.getValue().split(CustomDocxFormatter.NEWLINE_CHAR, -1);
+                for (int idx = 0; idx < lines.length; idx += 1) {
+                    if (idx > 0) {
+                        result.add(CustomDocxFormatter.FACTORY.createBr());
+                    }
+                    final Text line = CustomDocxFormatter.FACTORY.createText();
+                    line.setValue(lines[idx]);
+                    line.setSpace(text.getSpace());
+                    if (item instanceof Text) {
+                        result.add(line);
+                    } else {
+                        result.add(CustomDocxFormatter.FACTORY.createRT(line));
+                    }
+                }
+            } else {
+                result.add(item);
             }
         }
+        content.clear();
+        content.addAll(result);
     }
 }
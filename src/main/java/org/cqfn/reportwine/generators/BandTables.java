@@ -0,0 +1,89 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.generators;
+
+import com.haulmont.yarg.structure.BandData;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Source of table data that takes rows from YARG {@link BandData} objects.
+ *
+ * @since 0.1
+ */
+final class BandTables implements TableSource {
+    /**
+     * The mappings of band names with lists of data to fill tables.
+     */
+    private final Map<String, List<BandData>> tables;
+
+    /**
+     * Constructor.
+     * @param tables The mappings of band names with lists of data to fill tables
+     */
+    BandTables(final Map<String, List<BandData>> tables) {
+        this.tables = tables;
+    }
+
+    @Override
+    public Iterable<Map<String, String>> getRows(final String band) {
+        final List<BandData> data = this.tables.get(band);
+        Iterable<Map<String, String>> result = null;
+        if (data != null) {
+            result = () -> new Iterator<Map<String, String>>() {
+                private final Iterator<BandData> bands = data.iterator();
+
+                @Override
+                public boolean hasNext() {
+                    return this.bands.hasNext();
+                }
+
+                @Override
+                public Map<String, String> next() {
+                    return BandTables.convert(this.bands.next());
+                }
+            };
+        }
+        return result;
+    }
+
+    /**
+     * Collects text data of the band.
+     * @param band The band
+     * @return The mapping of variable names to values
+     */
+    private static Map<String, String> convert(final BandData band) {
+        final Map<String, String> map = new HashMap<>();
+        for (final Map.Entry<String, Object> item : band.getData().entrySet()) {
+            final Object value = item.getValue();
+            if (value instanceof String) {
+                map.put(item.getKey(), value.toString());
+            }
+        }
+        return map;
+    }
+}
@@ -35,6 +35,11 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import org.apache.commons.io.IOUtils;
 import org.cqfn.reportwine.formatters.CustomDocxFormatter;
+import org.cqfn.reportwine.formatters.TocUpdate;
+import org.cqfn.reportwine.utils.Compression;
+import org.cqfn.reportwine.utils.PackageWriter;
+import org.cqfn.reportwine.utils.TemplateCache;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
 
 /**
  * Generator of docx files.
@@ -47,12 +52,56 @@ public class DocxGenerator {
      */
     private final BandData mappings;
 
+    /**
+     * The cache of loaded templates or {@code null} if templates are not cached.
+     */
+    private final TemplateCache templates;
+
+    /**
+     * The mode of updating the Table of Contents.
+     */
+    private final TocUpdate toc;
+
+    /**
+     * The compression of parts of the generated document that are written again.
+     */
+    private final Compression compression;
+
     /**
      * Constructor.
      * @param mappings The {@link BandData} object with YARG mappings
      */
     public DocxGenerator(final BandData mappings) {
+        this(mappings, null, TocUpdate.ALWAYS);
+    }
+
+    /**
+     * Constructor.
+     * @param mappings The {@link BandData} object with YARG mappings
+     * @param templates The cache of loaded templates, to render the same templates
+     *  many times without reading them again, or {@code null}
+     * @param toc The mode of updating the Table of Contents
+     */
+    public DocxGenerator(
+        final BandData mappings, final TemplateCache templates, final TocUpdate toc) {
+        this(mappings, templates, toc, Compression.DEFAULT);
+    }
+
+    /**
+     * Constructor.
+     * @param mappings The {@link BandData} object with YARG mappings
+     * @param templates The cache of loaded templates, to render the same templates
+     *  many times without reading them again, or {@code null}
+     * @param toc The mode of updating the Table of Contents
+     * @param compression The compression of parts of the generated document
+     *  that are written again
+     */
+    public DocxGenerator(final BandData mappings, final TemplateCache templates,
+        final TocUpdate toc, final Compression compression) {
         this.mappings = mappings;
+        this.templates = templates;
+        this.toc = toc;
+        this.compression = compression;
     }
 
     /**
@@ -69,14 +118,26 @@ public class DocxGenerator {
             template.getPath(),
             ReportOutputType.docx
         );
-        final CustomDocxFormatter docformatter = new CustomDocxFormatter(
-            new FormatterFactoryInput(
-                "docx",
-                this.mappings,
-                docxreport,
-                stream
-            )
+        final FormatterFactoryInput input = new FormatterFactoryInput(
+            "docx",
+            this.mappings,
+            docxreport,
+            stream
         );
+        final PackageWriter writer = new PackageWriter(template, this.compression);
+        final CustomDocxFormatter docformatter;
+        if (this.templates == null) {
+            docformatter = new CustomDocxFormatter(input, null, this.toc, writer);
+        } else {
+            try {
+                docformatter = new CustomDocxFormatter(
+                    input, this.templates.load(template), this.toc, writer
+                );
+            } catch (final Docx4JException exception) {
+                IOUtils.closeQuietly(stream);
+                throw new IOException("Cannot load docx template", exception);
+            }
+        }
         docformatter.renderDocument();
         IOUtils.closeQuietly(stream);
     }
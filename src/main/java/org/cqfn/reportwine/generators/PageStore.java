@@ -0,0 +1,245 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.reportwine.generators;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.commons.io.IOUtils;
+import org.cqfn.reportwine.utils.ChangedPartStore;
+import org.docx4j.openpackaging.contenttype.ContentTypeManager;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.io3.stores.PartStore;
+import org.docx4j.openpackaging.io3.stores.ZipPartStore;
+import org.docx4j.openpackaging.parts.CustomXmlDataStoragePart;
+import org.docx4j.openpackaging.parts.JaxbXmlPart;
+import org.docx4j.openpackaging.parts.Part;
+import org.docx4j.openpackaging.parts.PartName;
+import org.docx4j.openpackaging.parts.XmlPart;
+
+/**
+ * Source part store that keeps rendered pages of tables in a temporary file.
+ * A page is written to the file as soon as it is rendered, and its object tree is
+ * released, so memory usage does not grow with the number of pages. The pages are
+ * read back from the file when the document is saved. Other parts are loaded from
+ * the store the package was loaded from. The pages are reported as changed parts,
+ * so they are never copied from the template, even if a page has the name of a part
+ * of the template.
+ * The temporary file is deleted when the store is disposed, which the generator does
+ * after the document is saved or its rendering fails.
+ *
+ * @since 0.1
+ */
+final class PageStore implements ChangedPartStore {
+    /**
+     * The store the package was loaded from.
+     */
+    private final PartStore source;
+
+    /**
+     * The temporary file with pages.
+     */
+    private final File file;
+
+    /**
+     * The access to the temporary file.
+     */
+    private final RandomAccessFile spool;
+
+    /**
+     * The positions and lengths of pages in the file by names of their parts.
+     */
+    private final Map<String, long[]> pages;
+
+    /**
+     * Constructor.
+     * @param source The store the package was loaded from
+     * @throws IOException If the temporary file cannot be created
+     */
+    PageStore(final PartStore source) throws IOException {
+        this.source = source;
+        this.file = File.createTempFile("reportwine", ".pages");
+        RandomAccessFile access = null;
+        try {
+            access = new RandomAccessFile(this.file, "rw");
+        } finally {
+            if (access == null) {
+                this.file.delete();
+            }
+        }
+        this.spool = access;
+        this.pages = new HashMap<>();
+    }
+
+    /**
+     * Writes the page into the temporary file.
+     * @param part The part of the page
+     * @param data The XML of the page
+     * @throws IOException If the page cannot be written
+     */
+    synchronized void put(final Part part, final byte[] data) throws IOException {
+        final long position = this.spool.length();
+        this.spool.seek(position);
+        this.spool.write(data);
+        this.pages.put(
+            PageStore.getEntryName(part.getPartName()), new long[] {position, data.length}
+        );
+    }
+
+    @Override
+    public synchronized InputStream loadPart(final String name) throws Docx4JException {
+        final long[] page = this.pages.get(name);
+        final InputStream result;
+        if (page == null) {
+            result = this.source.loadPart(name);
+        } else {
+            final byte[] data = new byte[(int) page[1]];
+            try {
+                this.spool.seek(page[0]);
+                this.spool.readFully(data);
+            } catch (final IOException exception) {
+                throw new Docx4JException(String.format("Cannot read part '%s'", name), exception);
+            }
+            result = new ByteArrayInputStream(data);
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the part is found in the store, that is, among its pages or in the template
+     * archive the package was loaded from. Stores of other types are not searched.
+     * @param store The store the package was loaded from or {@code null}
+     * @param name The name of the part, without the leading slash
+     * @return Checking result
+     */
+    static boolean exists(final PartStore store, final String name) {
+        boolean result = false;
+        if (store instanceof PageStore) {
+            result = ((PageStore) store).isChanged(name)
+                || PageStore.exists(((PageStore) store).source, name);
+        } else if (store instanceof ZipPartStore) {
+            result = ((ZipPartStore) store).partExists(name);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized boolean isChanged(final String name) {
+        return this.pages.containsKey(name);
+    }
+
+    @Override
+    public synchronized long getPartSize(final String name) throws Docx4JException {
+        final long[] page = this.pages.get(name);
+        final long result;
+        if (page == null) {
+            result = this.source.getPartSize(name);
+        } else {
+            result = page[1];
+        }
+        return result;
+    }
+
+    /**
+     * Renames the part. A page written to the temporary file is read back under
+     * the new name, and other parts are renamed by the store the package was loaded from.
+     * @param previous The previous name of the part
+     * @param next The new name of the part
+     */
+    @Override
+    public synchronized void rename(final PartName previous, final PartName next) {
+        final long[] page = this.pages.remove(PageStore.getEntryName(previous));
+        if (page == null) {
+            this.source.rename(previous, next);
+        } else {
+            this.pages.put(PageStore.getEntryName(next), page);
+        }
+    }
+
+    @Override
+    public void setOutputStream(final OutputStream stream) throws Docx4JException {
+        this.source.setOutputStream(stream);
+    }
+
+    @Override
+    public void saveContentTypes(final ContentTypeManager manager) throws Docx4JException {
+        this.source.saveContentTypes(manager);
+    }
+
+    @Override
+    public void saveJaxbXmlPart(final JaxbXmlPart part) throws Docx4JException {
+        this.source.saveJaxbXmlPart(part);
+    }
+
+    @Override
+    public void saveCustomXmlDataStoragePart(
+        final CustomXmlDataStoragePart part) throws Docx4JException {
+        this.source.saveCustomXmlDataStoragePart(part);
+    }
+
+    @Override
+    public void saveXmlPart(final XmlPart part) throws Docx4JException {
+        this.source.saveXmlPart(part);
+    }
+
+    @Override
+    public void saveBinaryPart(final Part part) throws Docx4JException {
+        this.source.saveBinaryPart(part);
+    }
+
+    @Override
+    public void finishSave() throws Docx4JException {
+        this.source.finishSave();
+    }
+
+    @Override
+    public void setSourcePartStore(final PartStore store) {
+        this.source.setSourcePartStore(store);
+    }
+
+    /**
+     * Deletes the temporary file with pages.
+     * The store the package was loaded from is not disposed.
+     */
+    @Override
+    public synchronized void dispose() {
+        IOUtils.closeQuietly(this.spool);
+        this.file.delete();
+        this.pages.clear();
+    }
+
+    /**
+     * Returns the name of the part in the store.
+     * @param name The name of the part
+     * @return The name, without the leading slash
+     */
+    private static String getEntryName(final PartName name) {
+        return name.getName().substring(1);
+    }
+}
@@ -24,28 +24,42 @@
 
 package org.cqfn.reportwine.generators;
 
-import com.haulmont.yarg.formatters.impl.AbstractFormatter;
 import com.haulmont.yarg.structure.BandData;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import javax.xml.bind.JAXBException;
 import org.apache.commons.lang3.StringUtils;
-import org.cqfn.reportwine.utils.ClassFinder;
+import org.cqfn.reportwine.utils.Compression;
+import org.cqfn.reportwine.utils.PackageWriter;
 import org.cqfn.reportwine.utils.TextVisitor;
 import org.docx4j.Docx4J;
 import org.docx4j.TraversalUtil;
-import org.docx4j.XmlUtils;
 import org.docx4j.dml.CTRegularTextRun;
 import org.docx4j.dml.CTTable;
 import org.docx4j.dml.CTTableCell;
-import org.docx4j.dml.CTTableRow;
 import org.docx4j.dml.CTTextParagraph;
+import org.docx4j.openpackaging.contenttype.ContentTypeManager;
 import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.io3.stores.PartStore;
+import org.docx4j.openpackaging.io3.stores.ZipPartStore;
+import org.docx4j.openpackaging.packages.OpcPackage;
 import org.docx4j.openpackaging.packages.PresentationMLPackage;
+import org.docx4j.openpackaging.parts.PresentationML.MainPresentationPart;
+import org.docx4j.openpackaging.parts.PresentationML.NotesSlidePart;
 import org.docx4j.openpackaging.parts.PresentationML.SlidePart;
 import org.pptx4j.Pptx4jException;
+import org.pptx4j.pml.Sld;
 
 /**
  * Generator of pptx files.
@@ -59,9 +73,26 @@ public class PptxGenerator {
     private final Map<String, String> mappings;
 
     /**
-     * The mappings of band names with lists of data to fill existing tables in the template.
+     * The source of data to fill existing tables in the template.
      */
-    private final Map<String, List<BandData>> tables;
+    private final TableSource tables;
+
+    /**
+     * The compression of parts of the generated document that are written again.
+     */
+    private final Compression compression;
+
+    /**
+     * The executor to render slides in parallel or {@code null} to render them
+     * one by one.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The maximum number of rows of a table on one slide or zero if tables
+     * are not split between slides.
+     */
+    private final int rows;
 
     /**
      * Constructor.
@@ -70,8 +101,68 @@ public class PptxGenerator {
      */
     public PptxGenerator(
         final Map<String, String> mappings, final Map<String, List<BandData>> tables) {
+        this(mappings, new BandTables(tables));
+    }
+
+    /**
+     * Constructor.
+     * @param mappings The mapping for Docx4j variable bindings
+     * @param tables The source of rows to fill tables, rows may be produced lazily
+     */
+    public PptxGenerator(final Map<String, String> mappings, final TableSource tables) {
+        this(mappings, tables, Compression.DEFAULT);
+    }
+
+    /**
+     * Constructor.
+     * @param mappings The mapping for Docx4j variable bindings
+     * @param tables The source of rows to fill tables, rows may be produced lazily
+     * @param compression The compression of parts of the generated document
+     *  that are written again
+     */
+    public PptxGenerator(final Map<String, String> mappings, final TableSource tables,
+        final Compression compression) {
+        this(mappings, tables, compression, null);
+    }
+
+    /**
+     * Constructor.
+     * Slides do not share any data that is modified during rendering, so they may be
+     * rendered concurrently. The document is saved after all slides are rendered.
+     * @param mappings The mapping for Docx4j variable bindings
+     * @param tables The source of rows to fill tables, rows may be produced lazily
+     * @param compression The compression of parts of the generated document
+     *  that are written again
+     * @param executor The executor to render slides in parallel or {@code null}
+     *  to render them one by one
+     */
+    public PptxGenerator(final Map<String, String> mappings, final TableSource tables,
+        final Compression compression, final ExecutorService executor) {
+        this(mappings, tables, compression, executor, 0);
+    }
+
+    /**
+     * Constructor.
+     * If the number of rows per slide is set, a slide with tables is copied as many times
+     * as needed to place all rows of its tables, each copy is a page with the next rows.
+     * Pages are rendered one by one before other slides and are kept in a temporary file
+     * until the document is saved.
+     * @param mappings The mapping for Docx4j variable bindings
+     * @param tables The source of rows to fill tables, rows may be produced lazily
+     * @param compression The compression of parts of the generated document
+     *  that are written again
+     * @param executor The executor to render slides in parallel or {@code null}
+     *  to render them one by one
+     * @param rows The maximum number of rows of a table on one slide or zero
+     *  if tables are not split between slides
+     */
+    public PptxGenerator(final Map<String, String> mappings, final TableSource tables,
+        final Compression compression, final ExecutorService executor, final int rows) {
         this.mappings = mappings;
         this.tables = tables;
+        this.compression = compression;
+        this.executor = executor;
+        this.rows = rows;
     }
 
     /**
@@ -83,124 +174,576 @@ public class PptxGenerator {
      */
     public void renderDocument(final File template, final File output)
         throws Docx4JException, Pptx4jException {
-        final PresentationMLPackage pptx = PresentationMLPackage.load(template);
-        final List<SlidePart> slides = pptx.getMainPresentationPart().getSlideParts();
-        for (final SlidePart slide : slides) {
-            final TextVisitor visitor = new TextVisitor();
-            new TraversalUtil(
-                slide.getJaxbElement().getCSld().getSpTree().getSpOrGrpSpOrGraphicFrame(),
-                visitor
-            );
-            final Map<CTTextParagraph, String> candidates = visitor.getMappings();
-            for (final Map.Entry<CTTextParagraph, String> item : candidates.entrySet()) {
-                this.replaceVariables(item);
+        this.renderDocument(PresentationMLPackage.load(template), template, output);
+    }
+
+    /**
+     * Renders a document with data collected from the YAML file.
+     * @param pptx The loaded template
+     * @param output The file to store the generated document
+     * @throws Docx4JException If an error occurs during saving of pptx document
+     * @throws Pptx4jException If an error occurs during loading of pptx slides
+     */
+    public void renderDocument(final PresentationMLPackage pptx, final File output)
+        throws Docx4JException, Pptx4jException {
+        try {
+            this.fillSlides(pptx);
+            Docx4J.save(pptx, output);
+        } finally {
+            PptxGenerator.releasePages(pptx);
+        }
+    }
+
+    /**
+     * Renders a document with data collected from the YAML file.
+     * Parts of the template that are not changed, like images, layouts and slides
+     * without variables, are copied from the template file without recompression.
+     * @param pptx The template loaded from the template file
+     * @param template The template file
+     * @param output The file to store the generated document
+     * @throws Docx4JException If an error occurs during saving of pptx document
+     * @throws Pptx4jException If an error occurs during loading of pptx slides
+     */
+    public void renderDocument(
+        final PresentationMLPackage pptx, final File template, final File output)
+        throws Docx4JException, Pptx4jException {
+        try {
+            this.fillSlides(pptx);
+            new PackageWriter(template, this.compression).save(pptx, output);
+        } catch (final IOException exception) {
+            throw new Docx4JException("Cannot save pptx document", exception);
+        } finally {
+            PptxGenerator.releasePages(pptx);
+        }
+    }
+
+    /**
+     * Repeats marked slides, splits long tables between slides and then replaces
+     * variables and fills tables in all other slides of the template.
+     * @param pptx The loaded template
+     * @throws Pptx4jException If an error occurs during loading of pptx slides
+     */
+    private void fillSlides(final PresentationMLPackage pptx) throws Pptx4jException {
+        final MainPresentationPart main = pptx.getMainPresentationPart();
+        final Map<SlidePart, Binding> copies = this.repeatSlides(main);
+        final Set<SlidePart> done = new HashSet<>();
+        if (this.rows > 0) {
+            this.splitSlides(main, copies, done);
+        }
+        final List<SlidePart> slides = new ArrayList<>();
+        for (final SlidePart slide : main.getSlideParts()) {
+            if (!done.contains(slide)) {
+                slides.add(slide);
             }
-            this.processTables(slide);
         }
-        Docx4J.save(pptx, output);
+        if (this.executor == null) {
+            for (final SlidePart slide : slides) {
+                this.fillSlide(slide, copies.get(slide));
+            }
+        } else {
+            final List<Future<?>> tasks = new ArrayList<>(slides.size());
+            for (final SlidePart slide : slides) {
+                final Binding local = copies.get(slide);
+                tasks.add(
+                    this.executor.submit(
+                        () -> {
+                            this.fillSlide(slide, local);
+                            return null;
+                        }
+                    )
+                );
+            }
+            PptxGenerator.await(tasks);
+        }
     }
 
     /**
-     * Replaces variables in the placeholders of the pptx template with the corresponding data.
-     * @param item The text of the paragraph which contains variables to be replaced and its
-     *  Docx4j object
-     */
-    private void replaceVariables(final Map.Entry<CTTextParagraph, String> item) {
-        final Matcher matcher = AbstractFormatter.UNIVERSAL_ALIAS_PATTERN.matcher(item.getValue());
-        String modified = "";
-        while (matcher.find()) {
-            final String placeholder = matcher.group();
-            final String variable = StringUtils.substringBetween(placeholder, "${", "}");
-            final String replacement = this.mappings.get(variable);
-            if (replacement != null) {
-                if (modified.isEmpty()) {
-                    modified = item.getValue();
+     * Repeats slides marked with {@code ##slides=band_name} for each item of the band.
+     * The copies are inserted in place of the marked slide, which is removed.
+     * @param main The main part of the presentation
+     * @return The compiled placeholders and values of items of bands by copies of slides
+     * @throws Pptx4jException If an error occurs during copying of slides
+     */
+    private Map<SlidePart, Binding> repeatSlides(final MainPresentationPart main)
+        throws Pptx4jException {
+        final Map<SlidePart, Binding> copies = new HashMap<>();
+        int index = 0;
+        for (final SlidePart slide : new ArrayList<>(main.getSlideParts())) {
+            index = this.repeatSlide(main, index, slide, copies);
+        }
+        return copies;
+    }
+
+    /**
+     * Repeats the slide for each item of the band, if the slide is marked with
+     * {@code ##slides=band_name}. If the band has no items, the slide is removed,
+     * and if there is no such band, the slide is kept as it is.
+     * Slides without the marker in their raw XML are not unmarshalled.
+     * @param main The main part of the presentation
+     * @param index The position of the slide in the presentation
+     * @param slide The slide
+     * @param copies The compiled placeholders and values of items of bands by copies
+     *  of slides to be extended
+     * @return The position of the next slide in the presentation
+     * @throws Pptx4jException If an error occurs during copying of the slide
+     */
+    private int repeatSlide(final MainPresentationPart main, final int index,
+        final SlidePart slide, final Map<SlidePart, Binding> copies)
+        throws Pptx4jException {
+        CTTextParagraph marker = null;
+        if (SlideFilter.isRepeated(slide)) {
+            marker = SlideRepeater.findMarker(slide);
+        }
+        String band = null;
+        Iterable<Map<String, String>> data = null;
+        if (marker != null) {
+            band = SlideRepeater.getBand(marker);
+            data = this.tables.getRows(band);
+        }
+        int next = index + 1;
+        if (data != null) {
+            next = index;
+            try {
+                SlideRepeater.removeMarker(marker, band);
+                final SlideRepeater repeater = new SlideRepeater(slide);
+                final SlideTemplate template =
+                    new SlideTemplate(PptxGenerator.visit(slide).getMappings().values());
+                for (final Map<String, String> item : data) {
+                    copies.put(
+                        repeater.stamp(main, next),
+                        new Binding(template, template.resolve(this.mappings, item))
+                    );
+                    next += 1;
                 }
-                modified = modified.replace(placeholder, replacement);
+            } catch (final JAXBException exception) {
+                throw new Pptx4jException(
+                    String.format("Cannot repeat the slide '%s'", band), exception
+                );
             }
+            PptxGenerator.removeSlide(main, next, slide);
         }
-        if (!modified.isEmpty()) {
-            final CTTextParagraph paragraph = item.getKey();
-            final CTRegularTextRun text =
-                (CTRegularTextRun) paragraph.getEGTextRun().get(0);
-            text.setT(modified);
-            paragraph.getEGTextRun().clear();
-            paragraph.getEGTextRun().add(text);
+        return next;
+    }
+
+    /**
+     * Splits tables of slides into pages of the maximum number of rows.
+     * @param main The main part of the presentation
+     * @param copies The compiled placeholders and values of items of bands by copies of slides
+     * @param done The slides that are rendered with pages, to be extended
+     * @throws Pptx4jException If an error occurs during rendering of pages
+     */
+    private void splitSlides(final MainPresentationPart main,
+        final Map<SlidePart, Binding> copies, final Set<SlidePart> done)
+        throws Pptx4jException {
+        int index = 0;
+        for (final SlidePart slide : new ArrayList<>(main.getSlideParts())) {
+            index = this.splitSlide(main, index, slide, copies.get(slide), done);
         }
     }
 
     /**
-     * Processes tables from the slide.
-     * If there is a map of a table band with data, it fills the table with this data.
-     * @param slide The slide from the template
+     * Renders the slide with tables as pages of the maximum number of rows.
+     * The slide itself is the first page, and the next pages are its copies inserted
+     * after it. Rows are taken from the sources of tables page by page, and each page
+     * is stored into a temporary file as soon as it is rendered. Placeholders of
+     * the slide are compiled once for all pages.
+     * @param main The main part of the presentation
+     * @param index The position of the slide in the presentation
+     * @param slide The slide
+     * @param local The compiled placeholders and values of the item of the band, if the slide
+     *  is a copy of a repeated slide, or {@code null}
+     * @param done The slides that are rendered with pages, to be extended
+     * @return The position of the next slide in the presentation
+     * @throws Pptx4jException If an error occurs during rendering of pages
      */
-    private void processTables(final SlidePart slide) {
-        final ClassFinder finder = new ClassFinder(CTTable.class);
-        new TraversalUtil(
-            slide.getJaxbElement().getCSld().getSpTree().getSpOrGrpSpOrGraphicFrame(),
-            finder
-        );
-        for (final Object obj : finder.getObjects()) {
-            final CTTable table = (CTTable) obj;
-            final CTTableRow head = table.getTr().get(0);
-            final CTTableRow row = table.getTr().get(1);
-            final CTTableCell cell = head.getTc().get(0);
-            final List<Object> parts = cell.getTxBody().getP().get(0).getEGTextRun();
-            final StringBuilder builder = new StringBuilder();
-            for (final Object part: parts) {
-                final CTRegularTextRun text = (CTRegularTextRun) part;
-                builder.append(text.getT());
+    private int splitSlide(final MainPresentationPart main, final int index,
+        final SlidePart slide, final Binding local, final Set<SlidePart> done)
+        throws Pptx4jException {
+        int next = index + 1;
+        if (SlideFilter.isCandidate(slide)) {
+            final TextVisitor visitor = PptxGenerator.visit(slide);
+            final List<Iterator<String[]>> sources =
+                new ArrayList<>(visitor.getTables().size());
+            boolean found = false;
+            for (final CTTable table : visitor.getTables()) {
+                final Iterable<String[]> data = this.getRows(table);
+                Iterator<String[]> source = null;
+                if (data != null) {
+                    source = data.iterator();
+                    found = true;
+                }
+                sources.add(source);
             }
-            final String value = builder.toString();
-            final String band = StringUtils.substringBetween(value, "##band=", " ");
-            List<BandData> data = null;
-            if (band != null) {
-                data = this.tables.get(band);
+            if (found) {
+                final SlideRepeater repeater;
+                try {
+                    repeater = new SlideRepeater(slide);
+                } catch (final JAXBException exception) {
+                    throw new Pptx4jException("Cannot split tables of the slide", exception);
+                }
+                final Binding binding = this.bind(visitor, local);
+                this.fillPage(visitor, binding, sources, true);
+                done.add(slide);
+                while (PptxGenerator.hasRows(sources)) {
+                    final SlidePart page;
+                    try {
+                        page = repeater.stamp(main, next);
+                    } catch (final JAXBException exception) {
+                        throw new Pptx4jException("Cannot split tables of the slide", exception);
+                    }
+                    this.fillPage(PptxGenerator.visit(page), binding, sources, false);
+                    PptxGenerator.storePage(main.getPackage(), page);
+                    done.add(page);
+                    next += 1;
+                }
             }
-            if (data != null) {
-                for (final BandData array : data) {
-                    PptxGenerator.fillTable(table, row, array);
+        }
+        return next;
+    }
+
+    /**
+     * Replaces variables and fills tables of the page with the next rows.
+     * On the next pages, the row with variable placeholders is removed from tables
+     * which rows are over.
+     * @param visitor The visitor that collected paragraphs and tables of the page
+     * @param binding The compiled placeholders of the page and values of variables
+     * @param sources The sources of rows by tables of the page, {@code null} for tables
+     *  without data
+     * @param first Identifies if the page is the first one
+     * @throws Pptx4jException If an error occurs during filling of tables
+     */
+    private void fillPage(final TextVisitor visitor, final Binding binding,
+        final List<Iterator<String[]>> sources, final boolean first)
+        throws Pptx4jException {
+        PptxGenerator.replaceVariables(visitor, binding);
+        final List<CTTable> found = visitor.getTables();
+        for (int idx = 0; idx < found.size(); idx += 1) {
+            final Iterator<String[]> source = sources.get(idx);
+            if (source != null) {
+                final CTTable table = found.get(idx);
+                final int count =
+                    PptxGenerator.fillTable(table, PptxGenerator.limit(source, this.rows));
+                if (count == 0 && !first) {
+                    table.getTr().remove(1);
                 }
-                final CTRegularTextRun text = (CTRegularTextRun) parts.get(0);
-                text.setT(
-                    value.substring(String.format("##band=%s ", band).length())
-                );
-                parts.clear();
-                parts.add(text);
             }
         }
     }
 
     /**
-     * Fills the table from the slide with data.
-     * @param table The table to be modified
-     * @param row The row with variable placeholders
-     * @param data The data to be inserted
+     * Checks if any of the sources of rows has more rows.
+     * @param sources The sources of rows, some of them may be {@code null}
+     * @return Checking result
      */
-    private static void fillTable(final CTTable table, final CTTableRow row, final BandData data) {
-        final CTTableRow cloned = XmlUtils.deepCopy(row);
-        final Map<String, String> map = new HashMap<>();
-        final Map<String,  Object> items = data.getData();
-        for (final Map.Entry<String, Object> item : items.entrySet()) {
-            final Object value = item.getValue();
-            if (value instanceof String) {
-                map.put(item.getKey(), value.toString());
+    private static boolean hasRows(final List<Iterator<String[]>> sources) {
+        boolean result = false;
+        for (final Iterator<String[]> source : sources) {
+            if (source != null && source.hasNext()) {
+                result = true;
+                break;
             }
         }
-        for (final CTTableCell cell : cloned.getTc()) {
-            final List<Object> params = cell.getTxBody().getP().get(0).getEGTextRun();
-            if (!params.isEmpty()) {
-                final CTRegularTextRun text =
-                    (CTRegularTextRun) params.get(0);
-                final String value = text.getT();
-                final String band = StringUtils.substringBetween(value, "${", "}");
-                final String replacement = map.get(band);
-                if (replacement != null) {
-                    text.setT(replacement);
+        return result;
+    }
+
+    /**
+     * Limits the number of rows taken from the source.
+     * @param source The source of rows
+     * @param count The maximum number of rows
+     * @return The rows that are taken from the source while they are iterated
+     */
+    private static Iterable<String[]> limit(final Iterator<String[]> source, final int count) {
+        return () -> new Iterator<String[]>() {
+            private int left = count;
+
+            @Override
+            public boolean hasNext() {
+                return this.left > 0 && source.hasNext();
+            }
+
+            @Override
+            public String[] next() {
+                this.left -= 1;
+                return source.next();
+            }
+        };
+    }
+
+    /**
+     * Writes the rendered page into the temporary file of the package and releases
+     * its object tree. The page is read back from the file when the document is saved.
+     * @param pkg The package
+     * @param page The page
+     * @throws Pptx4jException If the page cannot be stored
+     */
+    private static void storePage(final OpcPackage pkg, final SlidePart page)
+        throws Pptx4jException {
+        final PageStore store;
+        final PartStore current = pkg.getSourcePartStore();
+        try {
+            if (current instanceof PageStore) {
+                store = (PageStore) current;
+            } else if (current == null) {
+                store = new PageStore(new ZipPartStore());
+                pkg.setSourcePartStore(store);
+            } else {
+                store = new PageStore(current);
+                pkg.setSourcePartStore(store);
+            }
+            final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            page.marshal(buffer);
+            store.put(page, buffer.toByteArray());
+        } catch (final IOException | JAXBException exception) {
+            throw new Pptx4jException("Cannot store the page of the slide", exception);
+        }
+        page.setJaxbElement((Sld) null);
+    }
+
+    /**
+     * Deletes the temporary file with pages of the package, if there is one.
+     * @param pkg The package
+     */
+    private static void releasePages(final OpcPackage pkg) {
+        final PartStore store = pkg.getSourcePartStore();
+        if (store instanceof PageStore) {
+            store.dispose();
+        }
+    }
+
+    /**
+     * Removes the slide from the presentation together with content types of the slide
+     * and its notes, so they are not saved.
+     * @param main The main part of the presentation
+     * @param index The position of the slide in the presentation
+     * @param slide The slide
+     * @throws Pptx4jException If the slide cannot be removed
+     */
+    private static void removeSlide(
+        final MainPresentationPart main, final int index, final SlidePart slide)
+        throws Pptx4jException {
+        final NotesSlidePart notes = slide.getNotesSlidePart();
+        main.removeSlide(index);
+        final ContentTypeManager types = main.getPackage().getContentTypeManager();
+        types.removeOverrideContentType(slide.getPartName());
+        if (notes != null) {
+            types.removeOverrideContentType(notes.getPartName());
+        }
+    }
+
+    /**
+     * Replaces variables and fills tables in the slide.
+     * Slides which XML has no variables and band names are skipped without unmarshalling.
+     * @param slide The slide from the template
+     * @param local The compiled placeholders and values of the item of the band, if the slide
+     *  is a copy of a repeated slide, or {@code null}
+     * @throws Pptx4jException If an error occurs during filling of tables
+     */
+    private void fillSlide(final SlidePart slide, final Binding local)
+        throws Pptx4jException {
+        if (SlideFilter.isCandidate(slide)) {
+            final TextVisitor visitor = PptxGenerator.visit(slide);
+            PptxGenerator.replaceVariables(visitor, this.bind(visitor, local));
+            this.processTables(visitor.getTables());
+        }
+    }
+
+    /**
+     * Waits for all slides to be rendered.
+     * If rendering of a slide fails, the failure is rethrown after all slides are finished.
+     * @param tasks The tasks that render slides
+     * @throws Pptx4jException If the current thread is interrupted or rendering
+     *  of a slide fails
+     */
+    private static void await(final List<Future<?>> tasks) throws Pptx4jException {
+        Exception failure = null;
+        for (final Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new Pptx4jException("Rendering of slides was interrupted", exception);
+            } catch (final ExecutionException exception) {
+                final Throwable cause = exception.getCause();
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                if (failure == null) {
+                    failure = (Exception) cause;
                 }
             }
         }
-        table.getTr().add(cloned);
-        table.getTr().remove(row);
+        if (failure instanceof Pptx4jException) {
+            throw (Pptx4jException) failure;
+        }
+        if (failure != null) {
+            throw (RuntimeException) failure;
+        }
+    }
+
+    /**
+     * Returns the compiled placeholders of the slide with values of variables.
+     * A copy of a repeated slide takes the placeholders that were compiled from
+     * the slide it was stamped from and stored for this very copy, other slides
+     * are compiled and resolved with the common variables.
+     * @param visitor The visitor that collected paragraphs of the slide
+     * @param shared The compiled placeholders and values of the item of the band
+     *  stored for the copy or {@code null} if the slide is not a copy
+     * @return The compiled placeholders with values
+     */
+    private Binding bind(final TextVisitor visitor, final Binding shared) {
+        Binding result = shared;
+        if (result == null) {
+            final SlideTemplate template = new SlideTemplate(visitor.getMappings().values());
+            result = new Binding(template, template.resolve(this.mappings, null));
+        }
+        return result;
+    }
+
+    /**
+     * Replaces variables in the placeholders of the pptx template with the corresponding data.
+     * Paragraphs are rendered by the compiled placeholders in the order they were collected.
+     * @param visitor The visitor that collected paragraphs of the slide
+     * @param binding The compiled placeholders of the slide and values of variables
+     */
+    private static void replaceVariables(final TextVisitor visitor, final Binding binding) {
+        int idx = 0;
+        for (final CTTextParagraph paragraph : visitor.getMappings().keySet()) {
+            final String modified = binding.template.render(idx, binding.values);
+            if (modified != null && !modified.isEmpty()) {
+                final List<Object> runs = paragraph.getEGTextRun();
+                final CTRegularTextRun text = (CTRegularTextRun) runs.get(0);
+                text.setT(modified);
+                if (runs.size() > 1) {
+                    runs.clear();
+                    runs.add(text);
+                }
+            }
+            idx += 1;
+        }
+    }
+
+    /**
+     * Collects paragraphs with variables and tables of the slide.
+     * @param slide The slide
+     * @return The visitor that collected paragraphs and tables
+     */
+    private static TextVisitor visit(final SlidePart slide) {
+        final TextVisitor visitor = new TextVisitor();
+        new TraversalUtil(
+            slide.getJaxbElement().getCSld().getSpTree().getSpOrGrpSpOrGraphicFrame(),
+            visitor
+        );
+        return visitor;
+    }
+
+    /**
+     * Processes tables from the slide.
+     * If there is a map of a table band with data, it fills the table with this data.
+     * @param found The tables collected from the slide
+     * @throws Pptx4jException If a row of a table cannot be copied
+     */
+    private void processTables(final List<CTTable> found) throws Pptx4jException {
+        for (final CTTable table : found) {
+            final Iterable<String[]> data = this.getRows(table);
+            if (data != null) {
+                PptxGenerator.fillTable(table, data);
+            }
+        }
+    }
+
+    /**
+     * Returns rows of the table by the band name from its top left cell.
+     * @param table The table
+     * @return The rows with values of the fields of the row with variable placeholders
+     *  or {@code null} if the table has no band name or there is no data for the band
+     */
+    private Iterable<String[]> getRows(final CTTable table) {
+        final String band = StringUtils.substringBetween(
+            PptxGenerator.getText(PptxGenerator.getHead(table)), "##band=", " "
+        );
+        Iterable<String[]> data = null;
+        if (band != null) {
+            data = this.tables.getRows(band, RowTemplate.findFields(table));
+        }
+        return data;
+    }
+
+    /**
+     * Fills the table with data and removes the band name from its top left cell.
+     * @param table The table
+     * @param data The rows of data
+     * @return The number of inserted rows
+     * @throws Pptx4jException If a row of the table cannot be copied
+     */
+    private static int fillTable(final CTTable table, final Iterable<String[]> data)
+        throws Pptx4jException {
+        final List<Object> parts = PptxGenerator.getHead(table);
+        final String value = PptxGenerator.getText(parts);
+        final String band = StringUtils.substringBetween(value, "##band=", " ");
+        final int count;
+        try {
+            count = new RowTemplate(table.getTr().get(1)).fill(table, data);
+        } catch (final JAXBException exception) {
+            throw new Pptx4jException(
+                String.format("Cannot fill the table '%s'", band), exception
+            );
+        }
+        final CTRegularTextRun text = (CTRegularTextRun) parts.get(0);
+        text.setT(value.substring(String.format("##band=%s ", band).length()));
+        parts.clear();
+        parts.add(text);
+        return count;
+    }
+
+    /**
+     * Returns text runs of the first paragraph of the top left cell of the table.
+     * @param table The table
+     * @return The text runs
+     */
+    private static List<Object> getHead(final CTTable table) {
+        final CTTableCell cell = table.getTr().get(0).getTc().get(0);
+        return cell.getTxBody().getP().get(0).getEGTextRun();
+    }
+
+    /**
+     * Concatenates text runs.
+     * @param parts The text runs
+     * @return The text
+     */
+    private static String getText(final List<Object> parts) {
+        final StringBuilder builder = new StringBuilder();
+        for (final Object part : parts) {
+            builder.append(((CTRegularTextRun) part).getT());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * The compiled placeholders of a slide with the values of its variables.
+     * Copies of a repeated slide share the compiled placeholders, and pages
+     * of a split slide share the values too.
+     *
+     * @since 0.1
+     */
+    private static final class Binding {
+        /**
+         * The compiled placeholders.
+         */
+        private final SlideTemplate template;
+
+        /**
+         * The values of variables by slots of the placeholders.
+         */
+        private final String[] values;
+
+        /**
+         * Constructor.
+         * @param template The compiled placeholders
+         * @param values The values of variables by slots of the placeholders
+         */
+        Binding(final SlideTemplate template, final String... values) {
+            this.template = template;
+            this.values = values;
+        }
     }
 }
@@ -0,0 +1,216 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.reportwine.generators;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import org.cqfn.reportwine.utils.PlaceholderScanner;
+import org.docx4j.XmlUtils;
+import org.docx4j.dml.CTRegularTextRun;
+import org.docx4j.dml.CTTable;
+import org.docx4j.dml.CTTableCell;
+import org.docx4j.dml.CTTableRow;
+import org.docx4j.jaxb.Context;
+import org.w3c.dom.Document;
+
+/**
+ * Template of a table row compiled once for all rows of a table.
+ * The row with variable placeholders is marshalled into a DOM tree once, and the cells
+ * that contain variables are recorded with the names of their fields, which are the columns
+ * of the rows of data. New rows are unmarshalled from the tree and the value of each recorded
+ * cell is taken by its index, so the row is not marshalled, its placeholders are not parsed
+ * and field names are not looked up again for each row of data.
+ * The template is not thread-safe.
+ *
+ * @since 0.1
+ */
+final class RowTemplate {
+    /**
+     * The namespace of DrawingML elements.
+     */
+    private static final String DRAWINGML =
+        "http://schemas.openxmlformats.org/drawingml/2006/main";
+
+    /**
+     * The row with variable placeholders.
+     */
+    private final CTTableRow origin;
+
+    /**
+     * The marshalled row with variable placeholders.
+     */
+    private final Document tree;
+
+    /**
+     * The indexes of cells that contain variables.
+     */
+    private final int[] cells;
+
+    /**
+     * The names of the fields of cells, in the order of {@link #cells}.
+     */
+    private final String[] fields;
+
+    /**
+     * The unmarshaller of new rows.
+     */
+    private final Unmarshaller unmarshaller;
+
+    /**
+     * Constructor.
+     * @param row The row with variable placeholders
+     * @throws JAXBException If the row cannot be marshalled
+     */
+    RowTemplate(final CTTableRow row) throws JAXBException {
+        this.origin = row;
+        final List<Integer> indexes = new ArrayList<>();
+        final List<String> names = new ArrayList<>();
+        final List<CTTableCell> list = row.getTc();
+        for (int idx = 0; idx < list.size(); idx += 1) {
+            final String name = RowTemplate.getField(list.get(idx));
+            if (name != null) {
+                indexes.add(idx);
+                names.add(name);
+            }
+        }
+        this.cells = new int[indexes.size()];
+        for (int idx = 0; idx < this.cells.length; idx += 1) {
+            this.cells[idx] = indexes.get(idx);
+        }
+        this.fields = names.toArray(new String[0]);
+        this.tree = XmlUtils.marshaltoW3CDomDocument(
+            row, Context.jc, RowTemplate.DRAWINGML, "tr", CTTableRow.class
+        );
+        this.unmarshaller = Context.jc.createUnmarshaller();
+    }
+
+    /**
+     * Returns the names of the fields of the row with variable placeholders of the table,
+     * that is, of its second row, without compiling the row.
+     * @param table The table
+     * @return The names of the fields, empty if the table has no such row
+     */
+    static String[] findFields(final CTTable table) {
+        final List<String> names = new ArrayList<>();
+        if (table.getTr().size() > 1) {
+            for (final CTTableCell cell : table.getTr().get(1).getTc()) {
+                final String name = RowTemplate.getField(cell);
+                if (name != null) {
+                    names.add(name);
+                }
+            }
+        }
+        return names.toArray(new String[0]);
+    }
+
+    /**
+     * Returns the names of the fields of cells with variables, that is, the columns
+     * of the rows of data expected by {@link #fill(CTTable, Iterable)}.
+     * @return The names of the fields
+     */
+    String[] getFields() {
+        return this.fields.clone();
+    }
+
+    /**
+     * Replaces the row with variable placeholders in the table with rows filled with data.
+     * The list of rows is built once and set into the table in a single operation,
+     * so filling takes time proportional to the number of rows.
+     * If there is no data, the table is not changed.
+     * @param table The table that contains the row with variable placeholders
+     * @param data The rows of data with values in the order of {@link #getFields()}
+     * @return The number of inserted rows
+     * @throws JAXBException If a row cannot be unmarshalled
+     */
+    int fill(final CTTable table, final Iterable<String[]> data)
+        throws JAXBException {
+        final List<CTTableRow> rows = table.getTr();
+        final int index = rows.indexOf(this.origin);
+        final List<CTTableRow> result = new ArrayList<>(rows.size());
+        result.addAll(rows.subList(0, index));
+        for (final String[] values : data) {
+            result.add(this.stamp(values));
+        }
+        final int count = result.size() - index;
+        if (count > 0) {
+            result.addAll(rows.subList(index + 1, rows.size()));
+            rows.clear();
+            rows.addAll(result);
+        }
+        return count;
+    }
+
+    /**
+     * Creates a new row filled with data.
+     * Cells which fields have no data keep the text of the template.
+     * @param values The values of the row in the order of {@link #getFields()}
+     * @return The new row
+     * @throws JAXBException If the row cannot be unmarshalled
+     */
+    CTTableRow stamp(final String... values) throws JAXBException {
+        final CTTableRow row =
+            this.unmarshaller.unmarshal(this.tree, CTTableRow.class).getValue();
+        final List<CTTableCell> list = row.getTc();
+        for (int idx = 0; idx < this.cells.length; idx += 1) {
+            final String value = values[idx];
+            if (value != null) {
+                RowTemplate.getFirstRun(list.get(this.cells[idx])).setT(value);
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Returns the name of the field of the cell, that is, the name of the first
+     * variable in the first text run of the cell.
+     * @param cell The cell
+     * @return The name or {@code null} if the cell has no variables
+     */
+    private static String getField(final CTTableCell cell) {
+        final List<Object> runs = cell.getTxBody().getP().get(0).getEGTextRun();
+        String result = null;
+        String text = null;
+        if (!runs.isEmpty()) {
+            text = ((CTRegularTextRun) runs.get(0)).getT();
+        }
+        if (text != null) {
+            final PlaceholderScanner scanner = new PlaceholderScanner(text);
+            if (scanner.next()) {
+                result = text.substring(scanner.getNameStart(), scanner.getNameEnd());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the first text run of the cell.
+     * @param cell The cell
+     * @return The text run
+     */
+    private static CTRegularTextRun getFirstRun(final CTTableCell cell) {
+        return (CTRegularTextRun) cell.getTxBody().getP().get(0).getEGTextRun().get(0);
+    }
+}
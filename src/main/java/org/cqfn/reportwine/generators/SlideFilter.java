@@ -0,0 +1,181 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.reportwine.generators;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.io3.stores.PartStore;
+import org.docx4j.openpackaging.parts.PresentationML.SlidePart;
+
+/**
+ * Filter of slides that scans the raw XML of a slide before it is unmarshalled.
+ * A slide may contain variables or tables to be filled only if its XML contains
+ * the dollar sign of {@code ${} or the number sign of {@code ##band=}. Single
+ * characters are searched instead of whole markers, since a marker may be split
+ * between several text runs. Slides without these characters are not unmarshalled
+ * at all and are saved as they are. Repeated slides are found by the whole marker
+ * {@code ##slides=} in the text of the XML, that is, with tags between text runs skipped.
+ *
+ * @since 0.1
+ */
+final class SlideFilter {
+    /**
+     * The size of the buffer for reading the XML.
+     */
+    private static final int BUFFER = 8192;
+
+    /**
+     * Constructor.
+     */
+    private SlideFilter() {
+    }
+
+    /**
+     * Checks if the slide may contain variables or tables to be filled.
+     * Slides that are already unmarshalled or that cannot be scanned are always
+     * considered as candidates.
+     * @param slide The slide
+     * @return Checking result, {@code false} if the slide surely has nothing to fill
+     */
+    static boolean isCandidate(final SlidePart slide) {
+        return SlideFilter.scan(slide, null);
+    }
+
+    /**
+     * Checks if the slide may be marked as a repeated one with {@code ##slides=band_name}.
+     * Slides that are already unmarshalled or that cannot be scanned are always
+     * considered as repeated ones.
+     * @param slide The slide
+     * @return Checking result, {@code false} if the slide surely has no marker
+     */
+    static boolean isRepeated(final SlidePart slide) {
+        return SlideFilter.scan(slide, SlideRepeater.MARKER);
+    }
+
+    /**
+     * Checks if the text of the XML contains the marker. Tags are skipped, so
+     * the marker is found even if it is split between several text runs.
+     * @param stream The stream of the XML
+     * @param marker The marker, which has no characters that are escaped in XML
+     * @return Checking result
+     * @throws IOException If an error during reading occurs
+     */
+    static boolean hasText(final InputStream stream, final String marker) throws IOException {
+        final byte[] pattern = marker.getBytes(StandardCharsets.US_ASCII);
+        final int[] fallback = SlideFilter.getFallback(pattern);
+        final byte[] buffer = new byte[SlideFilter.BUFFER];
+        boolean tag = false;
+        int matched = 0;
+        int count = stream.read(buffer);
+        while (count >= 0 && matched < pattern.length) {
+            for (int idx = 0; idx < count && matched < pattern.length; idx += 1) {
+                final byte symbol = buffer[idx];
+                if (symbol == '<') {
+                    tag = true;
+                } else if (symbol == '>') {
+                    tag = false;
+                } else if (!tag) {
+                    while (matched > 0 && pattern[matched] != symbol) {
+                        matched = fallback[matched - 1];
+                    }
+                    if (pattern[matched] == symbol) {
+                        matched += 1;
+                    }
+                }
+            }
+            count = stream.read(buffer);
+        }
+        return matched == pattern.length;
+    }
+
+    /**
+     * Checks if the XML contains characters that start variables or band names.
+     * @param stream The stream of the XML
+     * @return Checking result
+     * @throws IOException If an error during reading occurs
+     */
+    static boolean hasMarkers(final InputStream stream) throws IOException {
+        final byte[] buffer = new byte[SlideFilter.BUFFER];
+        boolean result = false;
+        int count = stream.read(buffer);
+        while (count >= 0 && !result) {
+            for (int idx = 0; idx < count; idx += 1) {
+                if (buffer[idx] == '$' || buffer[idx] == '#') {
+                    result = true;
+                    break;
+                }
+            }
+            count = stream.read(buffer);
+        }
+        return result;
+    }
+
+    /**
+     * Scans the raw XML of the slide.
+     * @param slide The slide
+     * @param marker The marker to be found in the text of the XML or {@code null}
+     *  to find characters that start variables or band names
+     * @return Checking result, {@code true} if the slide is already unmarshalled
+     *  or cannot be scanned
+     */
+    private static boolean scan(final SlidePart slide, final String marker) {
+        boolean result = true;
+        final PartStore store = slide.getPackage().getSourcePartStore();
+        if (!slide.isUnmarshalled() && store != null) {
+            try (InputStream stream = store.loadPart(slide.getPartName().getName().substring(1))) {
+                if (stream != null && marker == null) {
+                    result = SlideFilter.hasMarkers(stream);
+                } else if (stream != null) {
+                    result = SlideFilter.hasText(stream, marker);
+                }
+            } catch (final Docx4JException | IOException ignored) {
+                result = true;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the lengths of the longest prefixes of the pattern that are also suffixes
+     * of its prefixes, to continue matching after a mismatch without reading back.
+     * @param pattern The pattern
+     * @return The lengths by the index of the last character of each prefix
+     */
+    private static int[] getFallback(final byte[] pattern) {
+        final int[] result = new int[pattern.length];
+        int length = 0;
+        for (int idx = 1; idx < pattern.length; idx += 1) {
+            while (length > 0 && pattern[idx] != pattern[length]) {
+                length = result[length - 1];
+            }
+            if (pattern[idx] == pattern[length]) {
+                length += 1;
+            }
+            result[idx] = length;
+        }
+        return result;
+    }
+}
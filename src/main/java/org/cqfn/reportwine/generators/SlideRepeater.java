@@ -0,0 +1,242 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.reportwine.generators;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import org.docx4j.XmlUtils;
+import org.docx4j.dml.CTRegularTextRun;
+import org.docx4j.dml.CTTextLineBreak;
+import org.docx4j.dml.CTTextParagraph;
+import org.docx4j.openpackaging.exceptions.InvalidFormatException;
+import org.docx4j.openpackaging.packages.OpcPackage;
+import org.docx4j.openpackaging.parts.PartName;
+import org.docx4j.openpackaging.parts.PresentationML.MainPresentationPart;
+import org.docx4j.openpackaging.parts.PresentationML.SlidePart;
+import org.docx4j.openpackaging.parts.relationships.Namespaces;
+import org.docx4j.openpackaging.parts.relationships.RelationshipsPart;
+import org.docx4j.relationships.ObjectFactory;
+import org.docx4j.relationships.Relationship;
+import org.pptx4j.Pptx4jException;
+import org.pptx4j.pml.Shape;
+import org.pptx4j.pml.Sld;
+import org.w3c.dom.Document;
+
+/**
+ * Template of a slide that is copied several times, for each item of an array band
+ * or for each page of a long table.
+ * A slide repeated for items is marked with {@code ##slides=band_name} in a text box.
+ * The slide is marshalled into a DOM tree once; each copy is unmarshalled
+ * from the tree and refers to the same layout, images and other targets of the slide,
+ * so the targets are not copied. Notes are not copied, since a notes slide belongs
+ * to one slide only. The template is not thread-safe.
+ *
+ * @since 0.1
+ */
+final class SlideRepeater {
+    /**
+     * The marker of a repeated slide.
+     */
+    static final String MARKER = "##slides=";
+
+    /**
+     * The factory of relationships.
+     */
+    private static final ObjectFactory FACTORY = new ObjectFactory();
+
+    /**
+     * The marshalled slide.
+     */
+    private final Document tree;
+
+    /**
+     * The relationships to be copied into each copy of the slide.
+     */
+    private final List<Relationship> relationships;
+
+    /**
+     * The unmarshaller of copies.
+     */
+    private final Unmarshaller unmarshaller;
+
+    /**
+     * Constructor.
+     * @param slide The slide to be copied
+     * @throws JAXBException If the slide cannot be marshalled
+     */
+    SlideRepeater(final SlidePart slide) throws JAXBException {
+        this.tree = XmlUtils.marshaltoW3CDomDocument(
+            slide.getJaxbElement(), slide.getJAXBContext()
+        );
+        this.relationships = new ArrayList<>();
+        final RelationshipsPart part = slide.getRelationshipsPart();
+        if (part != null) {
+            for (final Relationship rel : part.getRelationships().getRelationship()) {
+                if (!Namespaces.PRESENTATIONML_NOTES_SLIDE.equals(rel.getType())) {
+                    this.relationships.add(rel);
+                }
+            }
+        }
+        this.unmarshaller = slide.getJAXBContext().createUnmarshaller();
+    }
+
+    /**
+     * Finds the paragraph with the marker of a repeated slide among text boxes
+     * of the slide.
+     * @param slide The slide
+     * @return The paragraph or {@code null} if the slide is not repeated
+     */
+    static CTTextParagraph findMarker(final SlidePart slide) {
+        CTTextParagraph result = null;
+        final List<Object> shapes =
+            slide.getJaxbElement().getCSld().getSpTree().getSpOrGrpSpOrGraphicFrame();
+        for (final Object shape : shapes) {
+            if (shape instanceof Shape && ((Shape) shape).getTxBody() != null) {
+                for (final CTTextParagraph paragraph : ((Shape) shape).getTxBody().getP()) {
+                    if (!paragraph.getEGTextRun().isEmpty()
+                        && SlideRepeater.getText(paragraph).contains(SlideRepeater.MARKER)) {
+                        result = paragraph;
+                        break;
+                    }
+                }
+            }
+            if (result != null) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the band name from the marker in the paragraph.
+     * @param paragraph The paragraph with the marker
+     * @return The band name
+     */
+    static String getBand(final CTTextParagraph paragraph) {
+        final String text = SlideRepeater.getText(paragraph);
+        final int start = text.indexOf(SlideRepeater.MARKER) + SlideRepeater.MARKER.length();
+        int end = start;
+        while (end < text.length() && !Character.isWhitespace(text.charAt(end))) {
+            end += 1;
+        }
+        return text.substring(start, end);
+    }
+
+    /**
+     * Removes the marker from the paragraph.
+     * Text runs of the paragraph are collapsed into the first one.
+     * @param paragraph The paragraph with the marker
+     * @param band The band name from the marker
+     */
+    static void removeMarker(final CTTextParagraph paragraph, final String band) {
+        final String text = SlideRepeater.getText(paragraph);
+        final int start = text.indexOf(SlideRepeater.MARKER.concat(band));
+        final String rest = text.substring(start + SlideRepeater.MARKER.length() + band.length());
+        final List<Object> runs = paragraph.getEGTextRun();
+        final CTRegularTextRun first = (CTRegularTextRun) runs.get(0);
+        first.setT(text.substring(0, start).concat(rest.trim()));
+        runs.clear();
+        runs.add(first);
+    }
+
+    /**
+     * Creates a new copy of the slide and inserts it into the presentation.
+     * @param main The main part of the presentation
+     * @param index The position of the copy among slides of the presentation
+     * @return The copy
+     * @throws JAXBException If the slide cannot be unmarshalled
+     * @throws Pptx4jException If the copy cannot be inserted
+     */
+    SlidePart stamp(final MainPresentationPart main, final int index)
+        throws JAXBException, Pptx4jException {
+        final SlidePart copy;
+        try {
+            copy = new SlidePart(SlideRepeater.createName(main));
+        } catch (final InvalidFormatException exception) {
+            throw new Pptx4jException("Cannot create a copy of the slide", exception);
+        }
+        copy.setJaxbElement(this.unmarshaller.unmarshal(this.tree, Sld.class).getValue());
+        main.addSlide(index, copy);
+        final RelationshipsPart part = copy.getRelationshipsPart(true);
+        for (final Relationship rel : this.relationships) {
+            final Relationship link = SlideRepeater.FACTORY.createRelationship();
+            link.setId(rel.getId());
+            link.setType(rel.getType());
+            link.setTarget(rel.getTarget());
+            link.setTargetMode(rel.getTargetMode());
+            part.addRelationship(link);
+        }
+        return copy;
+    }
+
+    /**
+     * Creates the name of a new slide part that is not used in the package
+     * and is not found in the template, so the new slide is never mistaken
+     * for a slide of the template removed from the package.
+     * @param main The main part of the presentation
+     * @return The part name
+     * @throws InvalidFormatException If the name is invalid
+     * @throws Pptx4jException If slides cannot be counted
+     */
+    private static PartName createName(final MainPresentationPart main)
+        throws InvalidFormatException, Pptx4jException {
+        final OpcPackage pkg = main.getPackage();
+        int number = main.getSlideCount() + 1;
+        PartName name = new PartName(String.format("/ppt/slides/slide%d.xml", number));
+        while (pkg.getParts().get(name) != null || SlideRepeater.isStored(pkg, name)) {
+            number += 1;
+            name = new PartName(String.format("/ppt/slides/slide%d.xml", number));
+        }
+        return name;
+    }
+
+    /**
+     * Checks if the part is found in the store the package was loaded from.
+     * @param pkg The package
+     * @param name The name of the part
+     * @return Checking result
+     */
+    private static boolean isStored(final OpcPackage pkg, final PartName name) {
+        return PageStore.exists(pkg.getSourcePartStore(), name.getName().substring(1));
+    }
+
+    /**
+     * Concatenates text runs of the paragraph.
+     * @param paragraph The paragraph
+     * @return The text
+     */
+    private static String getText(final CTTextParagraph paragraph) {
+        final StringBuilder builder = new StringBuilder();
+        for (final Object value : paragraph.getEGTextRun()) {
+            if (value instanceof CTRegularTextRun) {
+                builder.append(((CTRegularTextRun) value).getT());
+            } else if (value instanceof CTTextLineBreak) {
+                builder.append(System.lineSeparator());
+            }
+        }
+        return builder.toString();
+    }
+}
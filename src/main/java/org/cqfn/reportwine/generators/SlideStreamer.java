@@ -0,0 +1,591 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.reportwine.generators;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.XMLEvent;
+import org.apache.commons.lang3.StringUtils;
+import org.cqfn.reportwine.utils.PlaceholderScanner;
+
+/**
+ * Renderer of a slide that processes its XML as a stream of StAX events.
+ * Only a paragraph or the first two rows of a table are kept in memory at a time:
+ * paragraphs with variables are collapsed into their first text run with
+ * the replaced text, like {@link PptxGenerator} does, and rows of tables
+ * with band names are produced from the template row while the stream is written.
+ *
+ * @since 0.1
+ */
+final class SlideStreamer {
+    /**
+     * The namespace of DrawingML elements.
+     */
+    private static final String DRAWINGML =
+        "http://schemas.openxmlformats.org/drawingml/2006/main";
+
+    /**
+     * The name of a paragraph element.
+     */
+    private static final String PARAGRAPH = "p";
+
+    /**
+     * The name of a text run element.
+     */
+    private static final String RUN = "r";
+
+    /**
+     * The name of a text element.
+     */
+    private static final String TEXT = "t";
+
+    /**
+     * The name of a table row element.
+     */
+    private static final String ROW = "tr";
+
+    /**
+     * The prefix of band names.
+     */
+    private static final String BAND = "##band=";
+
+    /**
+     * The factory of event readers.
+     */
+    private static final XMLInputFactory INPUTS = SlideStreamer.createInputFactory();
+
+    /**
+     * The factory of event writers.
+     */
+    private static final XMLOutputFactory OUTPUTS = XMLOutputFactory.newInstance();
+
+    /**
+     * The factory of events.
+     */
+    private static final XMLEventFactory EVENTS = XMLEventFactory.newInstance();
+
+    /**
+     * The data to be inserted into the variable placeholders.
+     */
+    private final Map<String, String> mappings;
+
+    /**
+     * The source of data to fill tables.
+     */
+    private final TableSource tables;
+
+    /**
+     * Constructor.
+     * @param mappings The data to be inserted into the variable placeholders
+     * @param tables The source of data to fill tables
+     */
+    SlideStreamer(final Map<String, String> mappings, final TableSource tables) {
+        this.mappings = mappings;
+        this.tables = tables;
+    }
+
+    /**
+     * Renders the slide.
+     * @param input The XML of the slide from the template
+     * @param output The stream to write the XML of the rendered slide, it is not closed
+     * @throws XMLStreamException If the XML cannot be read or written
+     */
+    void render(final InputStream input, final OutputStream output) throws XMLStreamException {
+        final XMLEventReader reader = SlideStreamer.INPUTS.createXMLEventReader(input);
+        final XMLEventWriter writer = SlideStreamer.OUTPUTS.createXMLEventWriter(
+            output, StandardCharsets.UTF_8.name()
+        );
+        while (reader.hasNext()) {
+            final XMLEvent event = reader.nextEvent();
+            if (SlideStreamer.isStart(event, SlideStreamer.PARAGRAPH)) {
+                SlideStreamer.writeAll(
+                    writer, this.processParagraph(SlideStreamer.readElement(reader, event))
+                );
+            } else if (SlideStreamer.isStart(event, "tbl")) {
+                writer.add(event);
+                this.processTable(reader, writer);
+            } else {
+                writer.add(event);
+            }
+        }
+        writer.flush();
+        writer.close();
+        reader.close();
+    }
+
+    /**
+     * Processes the beginning of a table, up to its template row.
+     * If the first cell of the table has a band name with data, the template row
+     * is replaced with rows filled with data. Other rows are processed
+     * by the main loop.
+     * @param reader The reader positioned after the start of the table
+     * @param writer The writer
+     * @throws XMLStreamException If the XML cannot be read or written
+     */
+    private void processTable(final XMLEventReader reader, final XMLEventWriter writer)
+        throws XMLStreamException {
+        List<XMLEvent> head = null;
+        boolean done = false;
+        while (!done && reader.hasNext()) {
+            final XMLEvent event = reader.peek();
+            if (SlideStreamer.isStart(event, SlideStreamer.ROW)) {
+                reader.nextEvent();
+                final List<XMLEvent> row =
+                    this.processParagraphs(SlideStreamer.readElement(reader, event));
+                if (head == null) {
+                    head = row;
+                } else {
+                    this.expand(writer, head, row);
+                    done = true;
+                }
+            } else if (event.isEndElement()) {
+                if (head != null) {
+                    SlideStreamer.writeAll(writer, head);
+                }
+                done = true;
+            } else {
+                reader.nextEvent();
+                List<XMLEvent> item = Collections.singletonList(event);
+                if (event.isStartElement()) {
+                    item = SlideStreamer.readElement(reader, event);
+                }
+                if (head == null) {
+                    SlideStreamer.writeAll(writer, item);
+                } else {
+                    head.addAll(item);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the header row and rows of the table produced from the template row.
+     * @param writer The writer
+     * @param head The events of the header row
+     * @param row The events of the template row
+     * @throws XMLStreamException If the XML cannot be written
+     */
+    private void expand(final XMLEventWriter writer, final List<XMLEvent> head,
+        final List<XMLEvent> row) throws XMLStreamException {
+        final int paragraph = SlideStreamer.findFirstParagraph(head, 0);
+        String value = "";
+        if (paragraph >= 0) {
+            value = SlideStreamer.getText(head, paragraph);
+        }
+        final String band = StringUtils.substringBetween(value, SlideStreamer.BAND, " ");
+        final List<int[]> texts = new ArrayList<>();
+        final List<String> fields = new ArrayList<>();
+        Iterable<String[]> data = null;
+        if (band != null) {
+            SlideStreamer.compileRow(row, texts, fields);
+            data = this.tables.getRows(band, fields.toArray(new String[0]));
+        }
+        if (data == null) {
+            SlideStreamer.writeAll(writer, head);
+            SlideStreamer.writeAll(writer, row);
+        } else {
+            SlideStreamer.writeAll(
+                writer,
+                SlideStreamer.collapse(
+                    head, paragraph,
+                    value.substring(SlideStreamer.BAND.length() + band.length() + 1)
+                )
+            );
+            int count = 0;
+            for (final String[] values : data) {
+                SlideStreamer.stamp(writer, row, texts, values);
+                count += 1;
+            }
+            if (count == 0) {
+                SlideStreamer.writeAll(writer, row);
+            }
+        }
+    }
+
+    /**
+     * Replaces variables in all paragraphs of the element.
+     * @param events The events of the element
+     * @return The events with processed paragraphs
+     */
+    private List<XMLEvent> processParagraphs(final List<XMLEvent> events) {
+        final List<XMLEvent> result = new ArrayList<>(events.size());
+        int idx = 0;
+        while (idx < events.size()) {
+            final XMLEvent event = events.get(idx);
+            if (SlideStreamer.isStart(event, SlideStreamer.PARAGRAPH)) {
+                final int end = SlideStreamer.findEnd(events, idx);
+                result.addAll(this.processParagraph(events.subList(idx, end + 1)));
+                idx = end + 1;
+            } else {
+                result.add(event);
+                idx += 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Replaces variables in the paragraph.
+     * If the paragraph has variables, its text runs are collapsed into the first one
+     * with the replaced text.
+     * @param paragraph The events of the paragraph
+     * @return The events of the processed paragraph
+     */
+    private List<XMLEvent> processParagraph(final List<XMLEvent> paragraph) {
+        final String text = SlideStreamer.getText(paragraph, 0);
+        List<XMLEvent> result = paragraph;
+        if (PlaceholderScanner.contains(text)) {
+            final String modified = SlideTemplate.substitute(this.mappings, text);
+            if (modified != null && !modified.isEmpty()) {
+                result = SlideStreamer.collapse(paragraph, 0, modified);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Collects the positions of texts of cells with variables in the template row.
+     * @param row The events of the template row
+     * @param texts The list to store the indexes of the first and the last events
+     *  of text elements
+     * @param fields The list to store the names of fields of cells
+     */
+    private static void compileRow(
+        final List<XMLEvent> row, final List<int[]> texts, final List<String> fields) {
+        int idx = 1;
+        final int end = row.size() - 1;
+        while (idx < end) {
+            if (row.get(idx).isStartElement()) {
+                final int close = SlideStreamer.findEnd(row, idx);
+                final int paragraph = SlideStreamer.findFirstParagraph(row, idx);
+                final int run = SlideStreamer.findFirstRun(row, paragraph);
+                final int text = SlideStreamer.findChild(row, run, SlideStreamer.TEXT);
+                if (text >= 0 && text < close) {
+                    final String value = SlideStreamer.getCharacters(row, text);
+                    final PlaceholderScanner scanner = new PlaceholderScanner(value);
+                    if (scanner.next()) {
+                        texts.add(new int[] {text, SlideStreamer.findEnd(row, text)});
+                        fields.add(
+                            value.substring(scanner.getNameStart(), scanner.getNameEnd())
+                        );
+                    }
+                }
+                idx = close + 1;
+            } else {
+                idx += 1;
+            }
+        }
+    }
+
+    /**
+     * Writes a row filled with data.
+     * @param writer The writer
+     * @param row The events of the template row
+     * @param texts The indexes of the first and the last events of text elements
+     *  of cells with variables
+     * @param values The values of the row in the order of the cells with variables
+     * @throws XMLStreamException If the XML cannot be written
+     */
+    private static void stamp(final XMLEventWriter writer, final List<XMLEvent> row,
+        final List<int[]> texts, final String... values)
+        throws XMLStreamException {
+        int last = 0;
+        for (int idx = 0; idx < texts.size(); idx += 1) {
+            final String value = values[idx];
+            if (value != null) {
+                final int[] bounds = texts.get(idx);
+                SlideStreamer.writeAll(writer, row.subList(last, bounds[0] + 1));
+                writer.add(SlideStreamer.EVENTS.createCharacters(value));
+                last = bounds[1];
+            }
+        }
+        SlideStreamer.writeAll(writer, row.subList(last, row.size()));
+    }
+
+    /**
+     * Collapses text runs of the paragraph into the first one with the specified text.
+     * Properties of the paragraph are kept, other runs, line breaks and fields are removed.
+     * @param events The events that contain the paragraph
+     * @param start The index of the start of the paragraph
+     * @param text The new text
+     * @return The events with the collapsed paragraph, or the same events if the first
+     *  item of the paragraph is not a text run
+     */
+    private static List<XMLEvent> collapse(
+        final List<XMLEvent> events, final int start, final String text) {
+        final int end = SlideStreamer.findEnd(events, start);
+        final int run = SlideStreamer.findFirstRun(events, start);
+        List<XMLEvent> result = events;
+        if (run >= 0) {
+            result = new ArrayList<>(events.size());
+            result.addAll(events.subList(0, start + 1));
+            int idx = start + 1;
+            while (idx < end) {
+                final XMLEvent event = events.get(idx);
+                if (event.isStartElement()) {
+                    final int close = SlideStreamer.findEnd(events, idx);
+                    final String name = event.asStartElement().getName().getLocalPart();
+                    if (idx == run) {
+                        SlideStreamer.copyRun(events, idx, text, result);
+                    } else if ("pPr".equals(name) || "endParaRPr".equals(name)) {
+                        result.addAll(events.subList(idx, close + 1));
+                    }
+                    idx = close + 1;
+                } else {
+                    idx += 1;
+                }
+            }
+            result.addAll(events.subList(end, events.size()));
+        }
+        return result;
+    }
+
+    /**
+     * Copies the text run replacing its text.
+     * @param events The events that contain the run
+     * @param start The index of the start of the run
+     * @param text The new text
+     * @param result The list to store the copy
+     */
+    private static void copyRun(final List<XMLEvent> events, final int start,
+        final String text, final List<XMLEvent> result) {
+        final int end = SlideStreamer.findEnd(events, start);
+        final int child = SlideStreamer.findChild(events, start, SlideStreamer.TEXT);
+        if (child < 0) {
+            result.addAll(events.subList(start, end + 1));
+        } else {
+            result.addAll(events.subList(start, child + 1));
+            result.add(SlideStreamer.EVENTS.createCharacters(text));
+            result.addAll(events.subList(SlideStreamer.findEnd(events, child), end + 1));
+        }
+    }
+
+    /**
+     * Returns the text of the paragraph: texts of runs and line breaks, like
+     * {@link org.cqfn.reportwine.utils.TextVisitor} collects them.
+     * @param events The events that contain the paragraph
+     * @param start The index of the start of the paragraph
+     * @return The text
+     */
+    private static String getText(final List<XMLEvent> events, final int start) {
+        final StringBuilder builder = new StringBuilder();
+        final int end = SlideStreamer.findEnd(events, start);
+        int idx = start + 1;
+        while (idx < end) {
+            final XMLEvent event = events.get(idx);
+            if (event.isStartElement()) {
+                final int close = SlideStreamer.findEnd(events, idx);
+                final String name = event.asStartElement().getName().getLocalPart();
+                if (SlideStreamer.RUN.equals(name)) {
+                    final int text = SlideStreamer.findChild(events, idx, SlideStreamer.TEXT);
+                    if (text >= 0 && text < close) {
+                        builder.append(SlideStreamer.getCharacters(events, text));
+                    }
+                } else if ("br".equals(name)) {
+                    builder.append(System.lineSeparator());
+                }
+                idx = close + 1;
+            } else {
+                idx += 1;
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns the characters of the element that contains only text.
+     * @param events The events
+     * @param start The index of the start of the element
+     * @return The text
+     */
+    private static String getCharacters(final List<XMLEvent> events, final int start) {
+        final StringBuilder builder = new StringBuilder();
+        int idx = start + 1;
+        while (idx < events.size() && events.get(idx).isCharacters()) {
+            builder.append(events.get(idx).asCharacters().getData());
+            idx += 1;
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Finds the first paragraph inside the element.
+     * @param events The events
+     * @param start The index of the start of the element
+     * @return The index of the start of the paragraph or -1 if there is no paragraph
+     */
+    private static int findFirstParagraph(final List<XMLEvent> events, final int start) {
+        final int result = SlideStreamer.findChild(events, start, SlideStreamer.PARAGRAPH);
+        final int end = SlideStreamer.findEnd(events, start);
+        int index = -1;
+        if (result >= 0 && result < end) {
+            index = result;
+        }
+        return index;
+    }
+
+    /**
+     * Finds the first item of the paragraph if it is a text run.
+     * @param events The events
+     * @param start The index of the start of the paragraph or -1
+     * @return The index of the start of the run or -1 if the first item is not a text run
+     */
+    private static int findFirstRun(final List<XMLEvent> events, final int start) {
+        int result = -1;
+        if (start >= 0) {
+            final int end = SlideStreamer.findEnd(events, start);
+            int idx = start + 1;
+            while (idx < end) {
+                final XMLEvent event = events.get(idx);
+                if (event.isStartElement()) {
+                    final String name = event.asStartElement().getName().getLocalPart();
+                    if (!"pPr".equals(name)) {
+                        if (SlideStreamer.RUN.equals(name)) {
+                            result = idx;
+                        }
+                        break;
+                    }
+                    idx = SlideStreamer.findEnd(events, idx) + 1;
+                } else {
+                    idx += 1;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the first descendant DrawingML element with the specified name.
+     * @param events The events
+     * @param start The index of the start of the element to search in or -1
+     * @param name The local name of the descendant
+     * @return The index of the start of the descendant or -1 if it is not found
+     */
+    private static int findChild(final List<XMLEvent> events, final int start, final String name) {
+        int result = -1;
+        if (start >= 0) {
+            final int end = SlideStreamer.findEnd(events, start);
+            for (int idx = start + 1; idx < end; idx += 1) {
+                if (SlideStreamer.isStart(events.get(idx), name)) {
+                    result = idx;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the end of the element.
+     * @param events The events
+     * @param start The index of the start of the element
+     * @return The index of the end of the element
+     */
+    private static int findEnd(final List<XMLEvent> events, final int start) {
+        int depth = 0;
+        int idx = start;
+        do {
+            final XMLEvent event = events.get(idx);
+            if (event.isStartElement()) {
+                depth += 1;
+            } else if (event.isEndElement()) {
+                depth -= 1;
+            }
+            idx += 1;
+        } while (depth > 0 && idx < events.size());
+        return idx - 1;
+    }
+
+    /**
+     * Reads the events of the element, including its start and its end.
+     * @param reader The reader positioned after the start of the element
+     * @param start The start of the element
+     * @return The events of the element
+     * @throws XMLStreamException If the XML cannot be read
+     */
+    private static List<XMLEvent> readElement(final XMLEventReader reader, final XMLEvent start)
+        throws XMLStreamException {
+        final List<XMLEvent> result = new ArrayList<>();
+        result.add(start);
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            final XMLEvent event = reader.nextEvent();
+            if (event.isStartElement()) {
+                depth += 1;
+            } else if (event.isEndElement()) {
+                depth -= 1;
+            }
+            result.add(event);
+        }
+        return result;
+    }
+
+    /**
+     * Writes all the events.
+     * @param writer The writer
+     * @param events The events
+     * @throws XMLStreamException If the XML cannot be written
+     */
+    private static void writeAll(final XMLEventWriter writer, final List<XMLEvent> events)
+        throws XMLStreamException {
+        for (final XMLEvent event : events) {
+            writer.add(event);
+        }
+    }
+
+    /**
+     * Checks if the event is the start of the DrawingML element with the specified name.
+     * @param event The event
+     * @param name The local name of the element
+     * @return Checking result
+     */
+    private static boolean isStart(final XMLEvent event, final String name) {
+        return event.isStartElement()
+            && name.equals(event.asStartElement().getName().getLocalPart())
+            && SlideStreamer.DRAWINGML.equals(event.asStartElement().getName().getNamespaceURI());
+    }
+
+    /**
+     * Creates the factory of event readers that does not resolve external entities.
+     * @return The factory
+     */
+    private static XMLInputFactory createInputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.generators;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.cqfn.reportwine.utils.PlaceholderScanner;
+
+/**
+ * Placeholders of the paragraphs of a slide compiled once for all renders of the slide.
+ * Each distinct variable name of the slide is placed into an integer slot, and the text
+ * of each paragraph is split into literal parts and slots of its placeholders.
+ * Values are resolved once per slot, and paragraphs are rendered by indexing the array
+ * of values, so copies of a repeated slide and pages of a split slide do not scan texts
+ * and look up names again. The template is not changed after it is compiled,
+ * so it may be shared between threads.
+ *
+ * @since 0.1
+ */
+final class SlideTemplate {
+    /**
+     * The variable names by slots.
+     */
+    private final String[] names;
+
+    /**
+     * The literal parts of texts of paragraphs, a paragraph with n placeholders
+     * has n + 1 parts.
+     */
+    private final String[][] parts;
+
+    /**
+     * The slots of placeholders of paragraphs.
+     */
+    private final int[][] slots;
+
+    /**
+     * Constructor.
+     * @param texts The texts of paragraphs with placeholders, in the order of the slide
+     */
+    SlideTemplate(final Collection<String> texts) {
+        final Map<String, Integer> index = new HashMap<>();
+        final List<String> distinct = new ArrayList<>();
+        this.parts = new String[texts.size()][];
+        this.slots = new int[texts.size()][];
+        int paragraph = 0;
+        for (final String text : texts) {
+            final List<String> literals = new ArrayList<>();
+            final List<Integer> sites = new ArrayList<>();
+            final PlaceholderScanner scanner = new PlaceholderScanner(text);
+            int last = 0;
+            while (scanner.next()) {
+                literals.add(text.substring(last, scanner.getStart()));
+                final String name = text.substring(scanner.getNameStart(), scanner.getNameEnd());
+                Integer slot = index.get(name);
+                if (slot == null) {
+                    slot = distinct.size();
+                    index.put(name, slot);
+                    distinct.add(name);
+                }
+                sites.add(slot);
+                last = scanner.getEnd();
+            }
+            literals.add(text.substring(last));
+            this.parts[paragraph] = literals.toArray(new String[0]);
+            this.slots[paragraph] = new int[sites.size()];
+            for (int idx = 0; idx < sites.size(); idx += 1) {
+                this.slots[paragraph][idx] = sites.get(idx);
+            }
+            paragraph += 1;
+        }
+        this.names = distinct.toArray(new String[0]);
+    }
+
+    /**
+     * Returns the number of compiled paragraphs.
+     * @return The number of paragraphs
+     */
+    int size() {
+        return this.parts.length;
+    }
+
+    /**
+     * Resolves values of all slots. Variables of the item of a band take precedence
+     * over the common ones.
+     * @param common The common variables
+     * @param local The variables of the item of a band or {@code null}
+     * @return The values by slots, a value is {@code null} if the variable is unknown
+     */
+    String[] resolve(final Map<String, String> common, final Map<String, String> local) {
+        final String[] values = new String[this.names.length];
+        for (int slot = 0; slot < this.names.length; slot += 1) {
+            String value = null;
+            if (local != null) {
+                value = local.get(this.names[slot]);
+            }
+            if (value == null) {
+                value = common.get(this.names[slot]);
+            }
+            values[slot] = value;
+        }
+        return values;
+    }
+
+    /**
+     * Renders the text of the paragraph. Placeholders of unknown variables are kept.
+     * @param paragraph The index of the paragraph
+     * @param values The values by slots
+     * @return The text with replaced placeholders or {@code null} if none
+     *  of the variables of the paragraph is known
+     */
+    String render(final int paragraph, final String... values) {
+        final String[] literals = this.parts[paragraph];
+        final int[] sites = this.slots[paragraph];
+        final StringBuilder builder = new StringBuilder().append(literals[0]);
+        boolean replaced = false;
+        for (int idx = 0; idx < sites.length; idx += 1) {
+            final String value = values[sites[idx]];
+            if (value == null) {
+                builder.append("${").append(this.names[sites[idx]]).append('}');
+            } else {
+                builder.append(value);
+                replaced = true;
+            }
+            builder.append(literals[idx + 1]);
+        }
+        String result = null;
+        if (replaced) {
+            result = builder.toString();
+        }
+        return result;
+    }
+
+    /**
+     * Replaces placeholders of known variables in the text with their values,
+     * without compiling the text. Placeholders of unknown variables are kept.
+     * @param mappings The data to be inserted into the variable placeholders
+     * @param text The text
+     * @return The text with replaced placeholders or {@code null} if the text
+     *  has no placeholders of known variables
+     */
+    static String substitute(final Map<String, String> mappings, final String text) {
+        final PlaceholderScanner scanner = new PlaceholderScanner(text);
+        final StringBuilder builder = new StringBuilder(text.length());
+        int last = 0;
+        while (scanner.next()) {
+            final String value =
+                mappings.get(text.substring(scanner.getNameStart(), scanner.getNameEnd()));
+            if (value != null) {
+                builder.append(text, last, scanner.getStart()).append(value);
+                last = scanner.getEnd();
+            }
+        }
+        String result = null;
+        if (last > 0) {
+            result = builder.append(text, last, text.length()).toString();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.reportwine.generators;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.regex.Pattern;
+import javax.xml.stream.XMLStreamException;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.cqfn.reportwine.utils.Compression;
+
+/**
+ * Generator of pptx files that renders slides as streams of XML events.
+ * Unlike {@link PptxGenerator}, it does not load the template into object trees:
+ * slides with variables or band names are transformed while they are copied from
+ * the template archive into the output one, and all other entries are copied
+ * as they are, without recompression. Memory used for the template does not depend
+ * on its size, but the input data, including all rows of tables, is parsed into
+ * the IR and kept in memory before rendering starts.
+ *
+ * @since 0.1
+ */
+public class StreamingPptxGenerator {
+    /**
+     * The pattern of names of slide entries.
+     */
+    private static final Pattern SLIDE = Pattern.compile("ppt/slides/[^/]+\\.xml");
+
+    /**
+     * The renderer of slides.
+     */
+    private final SlideStreamer streamer;
+
+    /**
+     * The compression of rendered slides.
+     */
+    private final Compression compression;
+
+    /**
+     * Constructor.
+     * @param mappings The mapping for variable bindings
+     * @param tables The source of rows to fill tables, rows may be produced lazily
+     */
+    public StreamingPptxGenerator(
+        final Map<String, String> mappings, final TableSource tables) {
+        this(mappings, tables, Compression.DEFAULT);
+    }
+
+    /**
+     * Constructor.
+     * @param mappings The mapping for variable bindings
+     * @param tables The source of rows to fill tables, rows may be produced lazily
+     * @param compression The compression of rendered slides
+     */
+    public StreamingPptxGenerator(final Map<String, String> mappings,
+        final TableSource tables, final Compression compression) {
+        this.streamer = new SlideStreamer(mappings, tables);
+        this.compression = compression;
+    }
+
+    /**
+     * Renders a document with data collected from the YAML file.
+     * @param template The template file
+     * @param output The file to store the generated document
+     * @throws IOException If an error during input or output actions occurs
+     *  or a slide cannot be rendered
+     */
+    public void renderDocument(final File template, final File output) throws IOException {
+        try (ZipFile source = ZipFile.builder().setFile(template).get();
+            ZipArchiveOutputStream target = new ZipArchiveOutputStream(output)) {
+            target.setLevel(this.compression.getLevel());
+            final Enumeration<ZipArchiveEntry> entries = source.getEntriesInPhysicalOrder();
+            while (entries.hasMoreElements()) {
+                final ZipArchiveEntry entry = entries.nextElement();
+                if (StreamingPptxGenerator.SLIDE.matcher(entry.getName()).matches()
+                    && StreamingPptxGenerator.hasMarkers(source, entry)) {
+                    this.renderSlide(source, entry, target);
+                } else {
+                    try (InputStream stream = source.getRawInputStream(entry)) {
+                        target.addRawArchiveEntry(entry, stream);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Renders the slide into the output archive.
+     * @param source The template archive
+     * @param entry The entry of the slide
+     * @param target The output archive
+     * @throws IOException If an error during input or output actions occurs
+     *  or the slide cannot be rendered
+     */
+    private void renderSlide(final ZipFile source, final ZipArchiveEntry entry,
+        final ZipArchiveOutputStream target) throws IOException {
+        final ZipArchiveEntry rendered = new ZipArchiveEntry(entry.getName());
+        rendered.setMethod(this.compression.getMethod());
+        target.putArchiveEntry(rendered);
+        try (InputStream stream = source.getInputStream(entry)) {
+            this.streamer.render(stream, target);
+        } catch (final XMLStreamException exception) {
+            throw new IOException(
+                String.format("Cannot render slide '%s'", entry.getName()), exception
+            );
+        }
+        target.closeArchiveEntry();
+    }
+
+    /**
+     * Checks if the slide may contain variables or band names.
+     * @param source The template archive
+     * @param entry The entry of the slide
+     * @return Checking result
+     * @throws IOException If an error during reading occurs
+     */
+    private static boolean hasMarkers(final ZipFile source, final ZipArchiveEntry entry)
+        throws IOException {
+        try (InputStream stream = source.getInputStream(entry)) {
+            return SlideFilter.hasMarkers(stream);
+        }
+    }
+}
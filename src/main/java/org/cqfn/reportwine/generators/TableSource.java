@@ -0,0 +1,85 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.generators;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Source of data to fill tables of the document template.
+ * If slides are rendered in parallel, rows are requested from several threads at once,
+ * so the source should not be changed while a document is rendered.
+ *
+ * @since 0.1
+ */
+public interface TableSource {
+    /**
+     * Returns rows of the table with the specified band name.
+     * Slides are repeated for these rows, so a source may also return bands of one item
+     * or none, which do not fill tables.
+     * Rows may be produced on demand while the table is filled,
+     * so the returned mappings should not be kept after the row is rendered.
+     * @param band The band name
+     * @return The rows that map variable names to values
+     *  or {@code null} if there is no table with such a band name
+     */
+    Iterable<Map<String, String>> getRows(String band);
+
+    /**
+     * Returns rows of the table with the specified band name as values of the columns,
+     * so a compiled row template takes the value of a cell by its index.
+     * By default, the values are taken from the mappings of {@link #getRows(String)}.
+     * @param band The band name
+     * @param columns The names of the columns
+     * @return The rows with values in the order of the columns, a value is {@code null}
+     *  if the row has no such variable, or {@code null} if there is no table with such
+     *  a band name
+     */
+    default Iterable<String[]> getRows(final String band, final String[] columns) {
+        final Iterable<Map<String, String>> rows = this.getRows(band);
+        Iterable<String[]> result = null;
+        if (rows != null) {
+            result = () -> new Iterator<String[]>() {
+                private final Iterator<Map<String, String>> maps = rows.iterator();
+
+                @Override
+                public boolean hasNext() {
+                    return this.maps.hasNext();
+                }
+
+                @Override
+                public String[] next() {
+                    final Map<String, String> map = this.maps.next();
+                    final String[] values = new String[columns.length];
+                    for (int idx = 0; idx < columns.length; idx += 1) {
+                        values[idx] = map.get(columns[idx]);
+                    }
+                    return values;
+                }
+            };
+        }
+        return result;
+    }
+}
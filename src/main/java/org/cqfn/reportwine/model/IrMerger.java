@@ -32,6 +32,8 @@ import java.util.List;
  * Merger of two intermediate representation (IR) structures into one.
  * Takes a first structure as a base and changes its data overridden in a second structure or
  * adds new data from the second one to the first.
+ * Several structures can be merged in one pass, as if they were merged pairwise
+ * one after another.
  *
  * @since 0.1
  */
@@ -63,6 +65,33 @@ public class IrMerger {
         return result;
     }
 
+    /**
+     * Merges a list of IR pairs in a single traversal.
+     * The first pair is a base, and each next pair overrides data of the previous ones.
+     * Pairs with keys that differ from the key of the first pair are ignored.
+     * @param overlays The list of pairs
+     * @return A new pair or the first pair if there is nothing to merge with it
+     */
+    public Pair merge(final List<Pair> overlays) {
+        final Pair first = overlays.get(0);
+        Overlay overlay = null;
+        for (final Pair pair : overlays.subList(1, overlays.size())) {
+            if (first.getKey().equals(pair.getKey())) {
+                if (overlay == null) {
+                    overlay = new Overlay(this, first.getValue());
+                }
+                overlay.add(pair.getValue());
+            }
+        }
+        final Pair result;
+        if (overlay == null) {
+            result = first;
+        } else {
+            result = new Pair(first.getKey(), overlay.result());
+        }
+        return result;
+    }
+
     /**
      * Merges values if one of them is an array or both are arrays.
      * @param result The pair with a merged value
@@ -0,0 +1,213 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accumulator of values of several IR structures that are merged by {@link IrMerger}
+ * in a single pass.
+ * Pairs are not merged immediately: pairs with the same key are collected into groups
+ * and each group is merged once, when all the layers are added.
+ * The result is the same as if the values were merged pairwise one after another.
+ *
+ * @since 0.1
+ */
+final class Overlay {
+    /**
+     * The merger to merge groups of pairs.
+     */
+    private final IrMerger merger;
+
+    /**
+     * The groups of pairs by keys, if the accumulated value is an array of pairs,
+     * or {@code null}.
+     */
+    private Map<String, List<Pair>> groups;
+
+    /**
+     * The pairs with the same key, if the accumulated value is a pair, or {@code null}.
+     */
+    private List<Pair> pairs;
+
+    /**
+     * The accumulated value, if it is neither a pair nor an array of pairs.
+     */
+    private Value value;
+
+    /**
+     * Constructor.
+     * @param merger The merger to merge groups of pairs
+     * @param initial The value of the first structure
+     */
+    Overlay(final IrMerger merger, final Value initial) {
+        this.merger = merger;
+        this.set(initial);
+    }
+
+    /**
+     * Adds the value of the next structure that overrides the accumulated one.
+     * @param next The value
+     */
+    void add(final Value next) {
+        if (this.groups != null) {
+            this.addToGroups(next);
+        } else if (this.pairs != null) {
+            this.addToPairs(next);
+        } else {
+            this.addToValue(next);
+        }
+    }
+
+    /**
+     * Returns the result of merging of all the added values.
+     * @return The merged value
+     */
+    Value result() {
+        final Value result;
+        if (this.groups != null) {
+            final List<Value> values = new ArrayList<>(this.groups.size());
+            for (final List<Pair> group : this.groups.values()) {
+                values.add(this.merger.merge(group));
+            }
+            result = new Array(values);
+        } else if (this.pairs != null) {
+            result = this.merger.merge(this.pairs);
+        } else {
+            result = this.value;
+        }
+        return result;
+    }
+
+    /**
+     * Adds the value to the accumulated array of pairs.
+     * @param next The value
+     */
+    private void addToGroups(final Value next) {
+        if (next instanceof Pair) {
+            this.group((Pair) next);
+        } else if (next instanceof Array) {
+            final Array array = (Array) next;
+            if (array.isPairArray()) {
+                for (final Value item : array.getValues()) {
+                    this.group((Pair) item);
+                }
+            } else if (this.groups.isEmpty()
+                && (array.isTextArray() || array.isArrayList())) {
+                this.set(array);
+            } else {
+                this.groups = new LinkedHashMap<>();
+            }
+        } else {
+            this.set(null);
+        }
+    }
+
+    /**
+     * Adds the value to the accumulated pair.
+     * @param next The value
+     */
+    private void addToPairs(final Value next) {
+        if (next instanceof Pair) {
+            final Pair pair = (Pair) next;
+            if (this.pairs.get(0).getKey().equals(pair.getKey())) {
+                this.pairs.add(pair);
+            }
+        } else if (next instanceof Array) {
+            final List<Pair> group = this.pairs;
+            this.pairs = null;
+            this.groups = new LinkedHashMap<>();
+            if (((Array) next).isPairArray()) {
+                this.groups.put(group.get(0).getKey(), group);
+                this.addToGroups(next);
+            }
+        } else {
+            this.set(null);
+        }
+    }
+
+    /**
+     * Adds the value to the accumulated value that is neither a pair nor an array of pairs.
+     * @param next The value
+     */
+    private void addToValue(final Value next) {
+        if (this.value instanceof Code) {
+            this.set(next);
+        } else if (this.value instanceof Array) {
+            final Array array = (Array) this.value;
+            if (next instanceof Array) {
+                final Array other = (Array) next;
+                if (array.isTextArray() && other.isTextArray()
+                    || array.isArrayList() && other.isArrayList()) {
+                    this.set(other);
+                } else {
+                    this.set(new Array(Collections.emptyList()));
+                }
+            } else if (next instanceof Pair) {
+                this.set(new Array(Collections.emptyList()));
+            } else {
+                this.set(null);
+            }
+        } else if (this.value instanceof Text && next instanceof Text) {
+            this.set(next);
+        } else {
+            this.set(null);
+        }
+    }
+
+    /**
+     * Adds the pair into the group with the same key.
+     * @param pair The pair
+     */
+    private void group(final Pair pair) {
+        this.groups.computeIfAbsent(pair.getKey(), key -> new LinkedList<>()).add(pair);
+    }
+
+    /**
+     * Replaces the accumulated value.
+     * @param initial The new value
+     */
+    private void set(final Value initial) {
+        this.groups = null;
+        this.pairs = null;
+        this.value = null;
+        if (initial instanceof Pair) {
+            this.pairs = new LinkedList<>();
+            this.pairs.add((Pair) initial);
+        } else if (initial instanceof Array && ((Array) initial).isPairArray()) {
+            this.groups = new LinkedHashMap<>();
+            for (final Value item : ((Array) initial).getValues()) {
+                this.group((Pair) item);
+            }
+        } else {
+            this.value = initial;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.reportwine.utils;
+
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+/**
+ * Levels of compression of document parts that are written again after rendering.
+ * Parts copied from the template as they are keep their compression.
+ *
+ * @since 0.1
+ */
+public enum Compression {
+    /**
+     * Parts are stored without compression, the fastest mode with the biggest files.
+     */
+    STORED(ZipEntry.STORED, Deflater.NO_COMPRESSION),
+
+    /**
+     * Parts are compressed with the fastest level of deflate.
+     */
+    FAST(ZipEntry.DEFLATED, Deflater.BEST_SPEED),
+
+    /**
+     * Parts are compressed with the default level of deflate.
+     */
+    DEFAULT(ZipEntry.DEFLATED, Deflater.DEFAULT_COMPRESSION),
+
+    /**
+     * Parts are compressed with the best level of deflate, the slowest mode
+     * with the smallest files.
+     */
+    BEST(ZipEntry.DEFLATED, Deflater.BEST_COMPRESSION);
+
+    /**
+     * The ZIP method of entries.
+     */
+    private final int method;
+
+    /**
+     * The deflate level.
+     */
+    private final int level;
+
+    /**
+     * Constructor.
+     * @param method The ZIP method of entries
+     * @param level The deflate level
+     */
+    Compression(final int method, final int level) {
+        this.method = method;
+        this.level = level;
+    }
+
+    /**
+     * Returns the ZIP method of entries.
+     * @return The method, {@link ZipEntry#STORED} or {@link ZipEntry#DEFLATED}
+     */
+    public int getMethod() {
+        return this.method;
+    }
+
+    /**
+     * Returns the deflate level.
+     * @return The level
+     */
+    public int getLevel() {
+        return this.level;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.utils;
+
+import java.util.Collections;
+import java.util.List;
+import org.docx4j.TraversalUtil;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.toc.TocFinder;
+
+/**
+ * Loaded docx template with information about its Table of Contents
+ * collected once when the template is loaded.
+ *
+ * @since 0.1
+ */
+public final class DocxTemplate {
+    /**
+     * The loaded template.
+     */
+    private final WordprocessingMLPackage document;
+
+    /**
+     * Identifies if the template has a Table of Contents.
+     */
+    private final boolean toc;
+
+    /**
+     * The texts of headings of the template.
+     */
+    private final List<String> headings;
+
+    /**
+     * Constructor that inspects the loaded template.
+     * @param document The loaded template
+     */
+    public DocxTemplate(final WordprocessingMLPackage document) {
+        this(
+            document,
+            DocxTemplate.findToc(document),
+            Collections.unmodifiableList(DocxTemplate.findHeadings(document))
+        );
+    }
+
+    /**
+     * Constructor.
+     * @param document The loaded template
+     * @param toc Identifies if the template has a Table of Contents
+     * @param headings The texts of headings of the template
+     */
+    private DocxTemplate(
+        final WordprocessingMLPackage document, final boolean toc, final List<String> headings) {
+        this.document = document;
+        this.toc = toc;
+        this.headings = headings;
+    }
+
+    /**
+     * Returns the loaded template.
+     * @return The document
+     */
+    public WordprocessingMLPackage getDocument() {
+        return this.document;
+    }
+
+    /**
+     * Checks if the template has a Table of Contents.
+     * @return Checking result
+     */
+    public boolean hasToc() {
+        return this.toc;
+    }
+
+    /**
+     * Returns the texts of headings of the template in the order of the document.
+     * @return The texts of headings
+     */
+    public List<String> getHeadings() {
+        return this.headings;
+    }
+
+    /**
+     * Creates the template with the same information about the Table of Contents
+     * for a copy of the document.
+     * @param copy The copy of the document
+     * @return The template
+     */
+    DocxTemplate withDocument(final WordprocessingMLPackage copy) {
+        return new DocxTemplate(copy, this.toc, this.headings);
+    }
+
+    /**
+     * Collects texts of headings of the document.
+     * @param document The document
+     * @return The texts of headings
+     */
+    public static List<String> findHeadings(final WordprocessingMLPackage document) {
+        final HeadingFinder finder = new HeadingFinder(document);
+        new TraversalUtil(document.getMainDocumentPart().getContent(), finder);
+        return finder.getHeadings();
+    }
+
+    /**
+     * Checks if the document has a Table of Contents.
+     * @param document The document
+     * @return Checking result
+     */
+    public static boolean findToc(final WordprocessingMLPackage document) {
+        final TocFinder finder = new TocFinder();
+        new TraversalUtil(document.getMainDocumentPart().getContent(), finder);
+        return finder.getTocSDT() != null;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Keys of files in caches.
+ * A key consists of the canonical path of the file and either its size and
+ * modification time or the digest of its content.
+ *
+ * @since 0.1
+ */
+final class FileKeys {
+    /**
+     * Constructor.
+     */
+    private FileKeys() {
+    }
+
+    /**
+     * Computes the key of the file in the cache.
+     * @param file The file
+     * @param hashing Identifies if the key should be computed from the content of the file
+     * @return The key
+     * @throws IOException If an error during reading the file occurs
+     */
+    static String key(final File file, final boolean hashing) throws IOException {
+        final StringBuilder builder = new StringBuilder(128);
+        builder.append(file.getCanonicalPath()).append(':');
+        if (hashing) {
+            builder.append(FileKeys.digest(Files.readAllBytes(file.toPath())));
+        } else {
+            builder
+                .append(Files.size(file.toPath()))
+                .append(':')
+                .append(Files.getLastModifiedTime(file.toPath()).toMillis());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Computes the SHA-256 digest of the data.
+     * @param data The data
+     * @return The digest as a hexadecimal string
+     */
+    static String digest(final byte[] data) {
+        final MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+        final StringBuilder builder = new StringBuilder(64);
+        for (final byte item : sha.digest(data)) {
+            builder.append(String.format("%02x", item));
+        }
+        return builder.toString();
+    }
+}
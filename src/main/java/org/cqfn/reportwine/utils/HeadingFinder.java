@@ -0,0 +1,194 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.utils;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.docx4j.TraversalUtil;
+import org.docx4j.XmlUtils;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.WordprocessingML.StyleDefinitionsPart;
+import org.docx4j.wml.ContentAccessor;
+import org.docx4j.wml.P;
+import org.docx4j.wml.PPrBase;
+import org.docx4j.wml.Style;
+import org.docx4j.wml.Text;
+
+/**
+ * Finder of heading paragraphs in docx documents, that is, paragraphs that
+ * may be listed in the Table of Contents.
+ * A paragraph is a heading if it has an outline level or a style with an outline level,
+ * which may be inherited from the style it is based on.
+ *
+ * @since 0.1
+ */
+public final class HeadingFinder extends TraversalUtil.CallbackImpl {
+    /**
+     * The outline level of body text.
+     */
+    private static final BigInteger BODY_TEXT = BigInteger.valueOf(9);
+
+    /**
+     * The identifiers of heading styles.
+     */
+    private final Set<String> styles;
+
+    /**
+     * The texts of found headings.
+     */
+    private final List<String> headings;
+
+    /**
+     * Constructor.
+     * @param document The document to find heading styles in
+     */
+    public HeadingFinder(final WordprocessingMLPackage document) {
+        this.styles = HeadingFinder.findStyles(document);
+        this.headings = new LinkedList<>();
+    }
+
+    @Override
+    public List<Object> apply(final Object obj) {
+        if (obj instanceof P && this.isHeading((P) obj)) {
+            final StringBuilder builder = new StringBuilder();
+            HeadingFinder.appendText(builder, (P) obj);
+            this.headings.add(builder.toString());
+        }
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean shouldTraverse(final Object obj) {
+        return !(obj instanceof P);
+    }
+
+    /**
+     * Returns the texts of found headings in the order of the document.
+     * @return The texts of headings
+     */
+    public List<String> getHeadings() {
+        return this.headings;
+    }
+
+    /**
+     * Checks if the paragraph is a heading.
+     * @param paragraph The paragraph
+     * @return Checking result
+     */
+    private boolean isHeading(final P paragraph) {
+        final PPrBase properties = paragraph.getPPr();
+        boolean result = false;
+        if (properties != null) {
+            result = HeadingFinder.isOutlined(properties)
+                || properties.getPStyle() != null
+                && this.styles.contains(properties.getPStyle().getVal());
+        }
+        return result;
+    }
+
+    /**
+     * Collects identifiers of paragraph styles that have an outline level,
+     * either their own or inherited from the styles they are based on.
+     * @param document The document
+     * @return The identifiers of heading styles
+     */
+    private static Set<String> findStyles(final WordprocessingMLPackage document) {
+        final Set<String> result = new HashSet<>();
+        final StyleDefinitionsPart part =
+            document.getMainDocumentPart().getStyleDefinitionsPart();
+        if (part != null && part.getJaxbElement() != null) {
+            final Map<String, Style> all = new HashMap<>();
+            for (final Style style : part.getJaxbElement().getStyle()) {
+                all.put(style.getStyleId(), style);
+            }
+            for (final Style style : part.getJaxbElement().getStyle()) {
+                if (HeadingFinder.isOutlined(style, all)) {
+                    result.add(style.getStyleId());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the style has an outline level of a heading. The level is taken from
+     * the nearest style of the chain of base styles that sets it.
+     * @param style The style
+     * @param all The styles of the document by their identifiers
+     * @return Checking result
+     */
+    private static boolean isOutlined(final Style style, final Map<String, Style> all) {
+        final Set<String> visited = new HashSet<>();
+        Style current = style;
+        boolean result = false;
+        while (current != null && visited.add(current.getStyleId())) {
+            final PPrBase properties = current.getPPr();
+            if (properties != null && properties.getOutlineLvl() != null
+                && properties.getOutlineLvl().getVal() != null) {
+                result = HeadingFinder.isOutlined(properties);
+                break;
+            }
+            if (current.getBasedOn() == null) {
+                current = null;
+            } else {
+                current = all.get(current.getBasedOn().getVal());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the paragraph properties specify an outline level of a heading.
+     * @param properties The paragraph properties
+     * @return Checking result
+     */
+    private static boolean isOutlined(final PPrBase properties) {
+        return properties.getOutlineLvl() != null
+            && properties.getOutlineLvl().getVal() != null
+            && properties.getOutlineLvl().getVal().compareTo(HeadingFinder.BODY_TEXT) < 0;
+    }
+
+    /**
+     * Appends texts of the element and its nested elements.
+     * @param builder The builder of the text
+     * @param element The element
+     */
+    private static void appendText(final StringBuilder builder, final ContentAccessor element) {
+        for (final Object item : element.getContent()) {
+            final Object value = XmlUtils.unwrap(item);
+            if (value instanceof Text) {
+                builder.append(((Text) value).getValue());
+            } else if (value instanceof ContentAccessor) {
+                HeadingFinder.appendText(builder, (ContentAccessor) value);
+            }
+        }
+    }
+}
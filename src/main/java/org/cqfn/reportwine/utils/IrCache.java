@@ -0,0 +1,254 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.utils;
+
+import com.amihaiemil.eoyaml.Yaml;
+import com.amihaiemil.eoyaml.YamlMapping;
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.cqfn.reportwine.converters.JsonToIrConverter;
+import org.cqfn.reportwine.converters.YamlToIrConverter;
+import org.cqfn.reportwine.exceptions.BaseException;
+import org.cqfn.reportwine.model.Pair;
+
+/**
+ * Cache of parsed input files that keeps their intermediate representations (IR).
+ * A file is parsed only if it was not met before or it was changed,
+ * that is, its path, size and modification time differ from the cached ones
+ * (or its content, if content hashing is enabled).
+ * The cache keeps a limited number of recently used structures in memory and,
+ * optionally, stores all parsed structures in a directory on disk as JSON.
+ * Stored files are read as data, so a damaged or foreign file in the directory
+ * is parsed again instead of being trusted.
+ * Cached structures are shared, so they should not be modified.
+ *
+ * @since 0.1
+ */
+public final class IrCache {
+    /**
+     * The extension of files in the disk cache.
+     */
+    private static final String EXTENSION = ".ir.json";
+
+    /**
+     * The extension of JSON input files.
+     */
+    private static final String JSON = ".json";
+
+    /**
+     * The maximum number of structures stored in memory.
+     */
+    private final int capacity;
+
+    /**
+     * The directory of the disk cache or {@code null} if the disk cache is disabled.
+     */
+    private final File directory;
+
+    /**
+     * Identifies if the keys of the cache are computed from the content of files.
+     */
+    private final boolean hashing;
+
+    /**
+     * The recently used structures in the access order.
+     */
+    private final Map<String, ParsedFile> memory;
+
+    /**
+     * Constructor of the in-memory cache.
+     * @param capacity The maximum number of structures stored in memory
+     */
+    public IrCache(final int capacity) {
+        this(capacity, null, false);
+    }
+
+    /**
+     * Constructor.
+     * @param capacity The maximum number of structures stored in memory
+     * @param directory The directory of the disk cache or {@code null}
+     *  to disable the disk cache
+     * @param hashing Identifies if the keys of the cache should be computed
+     *  from the content of files
+     */
+    public IrCache(final int capacity, final File directory, final boolean hashing) {
+        this.capacity = capacity;
+        this.directory = directory;
+        this.hashing = hashing;
+        this.memory = new LinkedHashMap<>(capacity, 0.75f, true);
+    }
+
+    /**
+     * Returns the parsed file, parsing the file only if it is not found in the cache.
+     * Files included by the parsed one are not resolved.
+     * @param file The YAML or JSON file
+     * @return The parsed file
+     * @throws IOException If an error during input or output actions occurs
+     * @throws BaseException If an error during a document processing occurs
+     */
+    public ParsedFile load(final File file) throws IOException, BaseException {
+        final String key = FileKeys.key(file, this.hashing);
+        ParsedFile result;
+        synchronized (this.memory) {
+            result = this.memory.get(key);
+        }
+        if (result == null) {
+            result = this.read(key);
+            if (result == null) {
+                result = IrCache.parse(file);
+                this.write(key, result);
+            }
+            synchronized (this.memory) {
+                this.memory.put(key, result);
+                if (this.memory.size() > this.capacity) {
+                    this.memory.remove(this.memory.keySet().iterator().next());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads the structure from the disk cache.
+     * @param key The key of the structure
+     * @return The cached structure or {@code null} if it is not found
+     */
+    private ParsedFile read(final String key) {
+        ParsedFile result = null;
+        if (this.directory != null) {
+            final Path path = this.path(key);
+            if (Files.exists(path)) {
+                try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                    result = IrCodec.decode(JsonParser.parseReader(reader));
+                } catch (final IOException | JsonParseException ignored) {
+                    result = null;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes the structure to the disk cache.
+     * The structure is written to a temporary file first and then moved, so concurrent
+     * readers never see a partially written file.
+     * @param key The key of the structure
+     * @param parsed The structure
+     * @throws IOException If an error during writing occurs
+     */
+    private void write(final String key, final ParsedFile parsed) throws IOException {
+        if (this.directory != null) {
+            Files.createDirectories(this.directory.toPath());
+            final Path path = this.path(key);
+            final Path temp = Files.createTempFile(this.directory.toPath(), "ir", ".tmp");
+            try {
+                try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    new Gson().toJson(IrCodec.encode(parsed), writer);
+                } catch (final JsonIOException exception) {
+                    throw new IOException(exception);
+                }
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Returns the path of the file in the disk cache.
+     * @param key The key of the structure
+     * @return The path
+     */
+    private Path path(final String key) {
+        return this.directory.toPath().resolve(
+            FileKeys.digest(key.getBytes(StandardCharsets.UTF_8)).concat(IrCache.EXTENSION)
+        );
+    }
+
+    /**
+     * Converts the input file into the intermediate representation.
+     * Files with the {@code .json} extension are parsed as JSON, other ones as YAML.
+     * @param file The input file
+     * @return The parsed file
+     * @throws IOException If an error during input or output actions occurs
+     * @throws BaseException If an error during a document processing occurs
+     */
+    private static ParsedFile parse(final File file) throws IOException, BaseException {
+        final ParsedFile result;
+        if (file.getName().toLowerCase(Locale.ROOT).endsWith(IrCache.JSON)) {
+            result = IrCache.parseJson(file);
+        } else {
+            result = IrCache.parseYaml(file);
+        }
+        return result;
+    }
+
+    /**
+     * Converts the JSON file into the intermediate representation.
+     * @param file The JSON file
+     * @return The parsed file
+     * @throws IOException If an error during input or output actions occurs
+     * @throws BaseException If an error during a document processing occurs
+     */
+    private static ParsedFile parseJson(final File file) throws IOException, BaseException {
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            final JsonToIrConverter conv = new JsonToIrConverter(reader);
+            final Pair content = conv.convert();
+            return new ParsedFile(content, conv.getIncludes());
+        }
+    }
+
+    /**
+     * Converts the YAML file into the intermediate representation.
+     * @param file The YAML file
+     * @return The parsed file
+     * @throws IOException If an error during input or output actions occurs
+     * @throws BaseException If an error during a document processing occurs
+     */
+    private static ParsedFile parseYaml(final File file) throws IOException, BaseException {
+        final YamlMapping yaml = Yaml.createYamlInput(file).readYamlMapping();
+        final YamlToIrConverter conv = new YamlToIrConverter(yaml);
+        final List<String> includes = conv.getIncludes();
+        Pair content = null;
+        if (includes.isEmpty() || conv.hasContent()) {
+            content = conv.convert();
+        }
+        return new ParsedFile(content, includes);
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.utils;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import java.util.ArrayList;
+import java.util.List;
+import org.cqfn.reportwine.model.Array;
+import org.cqfn.reportwine.model.Code;
+import org.cqfn.reportwine.model.Pair;
+import org.cqfn.reportwine.model.Text;
+import org.cqfn.reportwine.model.Value;
+
+/**
+ * Lossless conversion of parsed files to JSON and back, used by the disk tier
+ * of {@link IrCache}. Unlike {@link Value#toJson()}, every value is stored
+ * with its type, so code snippets and arrays of any content are restored as they were.
+ * Only the IR classes can be created while decoding, so files of the cache
+ * directory are treated as data.
+ *
+ * @since 0.1
+ */
+final class IrCodec {
+    /**
+     * The field of the parsed content.
+     */
+    private static final String CONTENT = "content";
+
+    /**
+     * The field of the included files.
+     */
+    private static final String INCLUDES = "includes";
+
+    /**
+     * The field of a text value.
+     */
+    private static final String TEXT = "text";
+
+    /**
+     * The field of a code value.
+     */
+    private static final String CODE = "code";
+
+    /**
+     * The field of the key of a pair.
+     */
+    private static final String KEY = "key";
+
+    /**
+     * The field of the value of a pair.
+     */
+    private static final String VALUE = "value";
+
+    /**
+     * The field of the values of an array.
+     */
+    private static final String ARRAY = "array";
+
+    /**
+     * Constructor.
+     */
+    private IrCodec() {
+    }
+
+    /**
+     * Converts the parsed file to JSON.
+     * @param parsed The parsed file
+     * @return The JSON object
+     */
+    static JsonObject encode(final ParsedFile parsed) {
+        final JsonObject result = new JsonObject();
+        result.add(IrCodec.CONTENT, IrCodec.encode(parsed.getContent()));
+        final JsonArray includes = new JsonArray();
+        for (final String include : parsed.getIncludes()) {
+            includes.add(include);
+        }
+        result.add(IrCodec.INCLUDES, includes);
+        return result;
+    }
+
+    /**
+     * Restores the parsed file from JSON.
+     * @param element The JSON element
+     * @return The parsed file
+     * @throws JsonParseException If the element does not describe a parsed file
+     */
+    static ParsedFile decode(final JsonElement element) {
+        final JsonObject object = IrCodec.object(element);
+        final Value content = IrCodec.decodeValue(object.get(IrCodec.CONTENT));
+        if (content != null && !(content instanceof Pair)) {
+            throw new JsonParseException("Expected pair as the content");
+        }
+        final List<String> includes = new ArrayList<>();
+        for (final JsonElement include : IrCodec.array(object.get(IrCodec.INCLUDES))) {
+            includes.add(IrCodec.string(include));
+        }
+        return new ParsedFile((Pair) content, includes);
+    }
+
+    /**
+     * Converts the value to JSON.
+     * @param value The value or {@code null}
+     * @return The JSON element
+     */
+    private static JsonElement encode(final Value value) {
+        final JsonElement result;
+        if (value instanceof Text) {
+            final JsonObject object = new JsonObject();
+            object.addProperty(IrCodec.TEXT, ((Text) value).getValue());
+            result = object;
+        } else if (value instanceof Code) {
+            final JsonObject object = new JsonObject();
+            object.addProperty(IrCodec.CODE, ((Code) value).getValue());
+            result = object;
+        } else if (value instanceof Pair) {
+            final JsonObject object = new JsonObject();
+            object.addProperty(IrCodec.KEY, ((Pair) value).getKey());
+            object.add(IrCodec.VALUE, IrCodec.encode(((Pair) value).getValue()));
+            result = object;
+        } else if (value instanceof Array) {
+            final JsonArray values = new JsonArray();
+            for (final Value item : ((Array) value).getValues()) {
+                values.add(IrCodec.encode(item));
+            }
+            final JsonObject object = new JsonObject();
+            object.add(IrCodec.ARRAY, values);
+            result = object;
+        } else {
+            result = JsonNull.INSTANCE;
+        }
+        return result;
+    }
+
+    /**
+     * Restores the value from JSON.
+     * @param element The JSON element
+     * @return The value or {@code null}
+     * @throws JsonParseException If the element does not describe a value
+     */
+    private static Value decodeValue(final JsonElement element) {
+        Value result = null;
+        if (element != null && !element.isJsonNull()) {
+            final JsonObject object = IrCodec.object(element);
+            if (object.has(IrCodec.TEXT)) {
+                result = new Text(IrCodec.string(object.get(IrCodec.TEXT)));
+            } else if (object.has(IrCodec.CODE)) {
+                result = new Code(IrCodec.string(object.get(IrCodec.CODE)));
+            } else if (object.has(IrCodec.KEY)) {
+                result = new Pair(
+                    IrCodec.string(object.get(IrCodec.KEY)),
+                    IrCodec.decodeValue(object.get(IrCodec.VALUE))
+                );
+            } else if (object.has(IrCodec.ARRAY)) {
+                final JsonArray array = IrCodec.array(object.get(IrCodec.ARRAY));
+                final List<Value> values = new ArrayList<>(array.size());
+                for (final JsonElement item : array) {
+                    values.add(IrCodec.decodeValue(item));
+                }
+                result = new Array(values);
+            } else {
+                throw new JsonParseException("Unknown type of value");
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Casts the element to a JSON object.
+     * @param element The JSON element
+     * @return The JSON object
+     * @throws JsonParseException If the element is not an object
+     */
+    private static JsonObject object(final JsonElement element) {
+        if (element == null || !element.isJsonObject()) {
+            throw new JsonParseException("Expected object");
+        }
+        return element.getAsJsonObject();
+    }
+
+    /**
+     * Casts the element to a JSON array.
+     * @param element The JSON element
+     * @return The JSON array
+     * @throws JsonParseException If the element is not an array
+     */
+    private static JsonArray array(final JsonElement element) {
+        if (element == null || !element.isJsonArray()) {
+            throw new JsonParseException("Expected array");
+        }
+        return element.getAsJsonArray();
+    }
+
+    /**
+     * Casts the element to a string.
+     * @param element The JSON element
+     * @return The string
+     * @throws JsonParseException If the element is not a string
+     */
+    private static String string(final JsonElement element) {
+        if (element == null || !element.isJsonPrimitive()
+            || !element.getAsJsonPrimitive().isString()) {
+            throw new JsonParseException("Expected string");
+        }
+        return element.getAsString();
+    }
+}
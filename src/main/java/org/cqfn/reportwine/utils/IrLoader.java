@@ -0,0 +1,214 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import org.cqfn.reportwine.exceptions.BaseException;
+import org.cqfn.reportwine.exceptions.CyclicInclude;
+import org.cqfn.reportwine.exceptions.UnsupportedYamlFormat;
+import org.cqfn.reportwine.model.IrMerger;
+import org.cqfn.reportwine.model.Pair;
+
+/**
+ * Loader of input files into the intermediate representation (IR) that resolves
+ * files listed in the {@code include} key.
+ * Included files are loaded in parallel and merged in the order they are listed,
+ * files matched by a glob pattern are merged in the order of their names.
+ * The data of the file itself is merged last, so it overrides the included data.
+ * Paths are resolved relative to the directory of the including file, glob patterns
+ * are supported in the file name only.
+ *
+ * @since 0.1
+ */
+public final class IrLoader {
+    /**
+     * The characters that identify a glob pattern.
+     */
+    private static final String GLOB_CHARS = "*?[{";
+
+    /**
+     * The cache of parsed files.
+     */
+    private final IrCache cache;
+
+    /**
+     * Constructor.
+     * @param cache The cache of parsed files
+     */
+    public IrLoader(final IrCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Loads the file with all included files.
+     * @param file The file
+     * @return The intermediate representation of data
+     * @throws IOException If an error during input or output actions occurs
+     * @throws BaseException If an error during a document processing occurs
+     */
+    public Pair load(final File file) throws IOException, BaseException {
+        return this.load(file.getCanonicalFile(), Collections.emptySet());
+    }
+
+    /**
+     * Loads the file with all included files.
+     * @param file The file with canonical path
+     * @param chain The files that include the current one
+     * @return The intermediate representation of data
+     * @throws IOException If an error during input or output actions occurs
+     * @throws BaseException If an error during a document processing occurs
+     */
+    private Pair load(final File file, final Set<File> chain)
+        throws IOException, BaseException {
+        if (chain.contains(file)) {
+            throw new CyclicInclude(file.getPath());
+        }
+        final ParsedFile parsed = this.cache.load(file);
+        Pair result = null;
+        if (parsed.getIncludes().isEmpty()) {
+            result = parsed.getContent();
+        } else {
+            final Set<File> nested = new HashSet<>(chain);
+            nested.add(file);
+            final List<File> files = new LinkedList<>();
+            for (final String include : parsed.getIncludes()) {
+                files.addAll(IrLoader.resolve(file.getParentFile(), include));
+            }
+            final List<Pair> parts = this.loadAll(files, nested);
+            if (parsed.getContent() != null) {
+                parts.add(parsed.getContent());
+            }
+            if (!parts.isEmpty()) {
+                result = new IrMerger().merge(parts);
+            }
+        }
+        if (result == null) {
+            throw UnsupportedYamlFormat.INSTANCE;
+        }
+        return result;
+    }
+
+    /**
+     * Loads files in parallel keeping their order.
+     * An error of a file loaded by a worker thread may be wrapped in several
+     * completion exceptions, so the chain of causes is unwrapped to rethrow it.
+     * @param files The files
+     * @param chain The files that include the current ones
+     * @return The list of loaded structures
+     * @throws IOException If an error during input or output actions occurs
+     * @throws BaseException If an error during a document processing occurs
+     */
+    private List<Pair> loadAll(final List<File> files, final Set<File> chain)
+        throws IOException, BaseException {
+        final List<Pair> result;
+        try {
+            result = files.parallelStream()
+                .map(
+                    item -> {
+                        try {
+                            return this.load(item, chain);
+                        } catch (final IOException | BaseException exception) {
+                            throw new CompletionException(exception);
+                        }
+                    }
+                )
+                .collect(Collectors.toCollection(ArrayList::new));
+        } catch (final CompletionException exception) {
+            Throwable cause = exception.getCause();
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof BaseException) {
+                throw (BaseException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw exception;
+        }
+        return result;
+    }
+
+    /**
+     * Resolves the path or glob pattern of included files.
+     * @param base The directory of the including file
+     * @param include The path or glob pattern
+     * @return The list of files with canonical paths
+     * @throws IOException If an error during reading the directory occurs
+     */
+    private static List<File> resolve(final File base, final String include)
+        throws IOException {
+        final int slash = include.lastIndexOf('/') + 1;
+        final Path directory = base.toPath().resolve(include.substring(0, slash));
+        final String name = include.substring(slash);
+        final List<File> result = new LinkedList<>();
+        if (IrLoader.isGlob(name)) {
+            final List<Path> paths = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, name)) {
+                for (final Path path : stream) {
+                    if (Files.isRegularFile(path)) {
+                        paths.add(path);
+                    }
+                }
+            }
+            Collections.sort(paths);
+            for (final Path path : paths) {
+                result.add(path.toFile().getCanonicalFile());
+            }
+        } else {
+            result.add(directory.resolve(name).toFile().getCanonicalFile());
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the file name is a glob pattern.
+     * @param name The file name
+     * @return Checking result, {@code true} if the name contains glob characters
+     *  or {@code false} otherwise
+     */
+    private static boolean isGlob(final String name) {
+        boolean glob = false;
+        for (final char symbol : name.toCharArray()) {
+            if (IrLoader.GLOB_CHARS.indexOf(symbol) >= 0) {
+                glob = true;
+                break;
+            }
+        }
+        return glob;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.reportwine.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.io3.Save;
+import org.docx4j.openpackaging.packages.OpcPackage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writer of rendered packages that copies the parts not changed during rendering
+ * from the template archive as they are, without decompressing and compressing them again.
+ * Media, themes, layouts and other untouched parts are copied byte-for-byte,
+ * and only the parts that were modified are serialized and compressed with
+ * the specified level. The time spent compressing is logged.
+ *
+ * @since 0.1
+ */
+public final class PackageWriter {
+    /**
+     * The logger.
+     */
+    private static final Logger LOG = LoggerFactory.getLogger(PackageWriter.class);
+
+    /**
+     * The template file the package was loaded from.
+     */
+    private final File template;
+
+    /**
+     * The compression of parts that are written again.
+     */
+    private final Compression compression;
+
+    /**
+     * Constructor.
+     * @param template The template file the package was loaded from
+     */
+    public PackageWriter(final File template) {
+        this(template, Compression.DEFAULT);
+    }
+
+    /**
+     * Constructor.
+     * @param template The template file the package was loaded from
+     * @param compression The compression of parts that are written again
+     */
+    public PackageWriter(final File template, final Compression compression) {
+        this.template = template;
+        this.compression = compression;
+    }
+
+    /**
+     * Saves the package to the file.
+     * @param pkg The package loaded from the template
+     * @param output The file to store the package
+     * @throws IOException If an error during input or output actions occurs
+     * @throws Docx4JException If an error occurs during saving of the package
+     */
+    public void save(final OpcPackage pkg, final File output)
+        throws IOException, Docx4JException {
+        try (OutputStream stream = Files.newOutputStream(output.toPath())) {
+            this.save(pkg, stream);
+        }
+    }
+
+    /**
+     * Saves the package to the stream.
+     * The stream is not closed.
+     * @param pkg The package loaded from the template
+     * @param output The stream to store the package
+     * @throws IOException If an error during input or output actions occurs
+     * @throws Docx4JException If an error occurs during saving of the package
+     */
+    public void save(final OpcPackage pkg, final OutputStream output)
+        throws IOException, Docx4JException {
+        final PassthroughPartStore store =
+            new PassthroughPartStore(this.template, this.compression);
+        try {
+            new Save(pkg, store).save(output);
+            PackageWriter.LOG.info(
+                "Parts compressed ({}) in {} ms",
+                this.compression,
+                TimeUnit.NANOSECONDS.toMillis(store.getCompressionTime())
+            );
+        } finally {
+            store.dispose();
+        }
+    }
+}
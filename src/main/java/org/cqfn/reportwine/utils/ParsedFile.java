@@ -0,0 +1,75 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.cqfn.reportwine.model.Pair;
+
+/**
+ * The result of parsing of a single input file: its own data and the list
+ * of files it includes.
+ *
+ * @since 0.1
+ */
+public final class ParsedFile {
+    /**
+     * The intermediate representation of the file data.
+     */
+    private final Pair content;
+
+    /**
+     * The paths or glob patterns of included files.
+     */
+    private final List<String> includes;
+
+    /**
+     * Constructor.
+     * @param content The intermediate representation of the file data
+     *  or {@code null} if the file contains only included files
+     * @param includes The paths or glob patterns of included files
+     */
+    public ParsedFile(final Pair content, final List<String> includes) {
+        this.content = content;
+        this.includes = new ArrayList<>(includes);
+    }
+
+    /**
+     * Returns the intermediate representation of the file data.
+     * @return The root pair or {@code null} if the file contains only included files
+     */
+    public Pair getContent() {
+        return this.content;
+    }
+
+    /**
+     * Returns the paths or glob patterns of included files.
+     * @return The list of paths
+     */
+    public List<String> getIncludes() {
+        return Collections.unmodifiableList(this.includes);
+    }
+}
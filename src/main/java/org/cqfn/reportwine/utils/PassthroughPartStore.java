@@ -0,0 +1,501 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.reportwine.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import javax.xml.bind.JAXBException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.IOUtils;
+import org.docx4j.XmlUtils;
+import org.docx4j.openpackaging.contenttype.ContentTypeManager;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.io3.stores.PartStore;
+import org.docx4j.openpackaging.parts.CustomXmlDataStoragePart;
+import org.docx4j.openpackaging.parts.JaxbXmlPart;
+import org.docx4j.openpackaging.parts.Part;
+import org.docx4j.openpackaging.parts.PartName;
+import org.docx4j.openpackaging.parts.WordprocessingML.BinaryPart;
+import org.docx4j.openpackaging.parts.XmlPart;
+
+/**
+ * Part store that writes a package to a ZIP archive, copying parts that were not changed
+ * from the archive of the template as they are.
+ * A part is unchanged if it was not unmarshalled (or, for binary parts, not loaded)
+ * after the template was opened, and the store the package was loaded from does not hold
+ * a changed version of it (see {@link ChangedPartStore}). Such parts are copied
+ * byte-for-byte in the compressed form, without inflating and deflating them again,
+ * and only the changed parts are serialized and compressed with the specified level.
+ * Changed parts are serialized straight into the archive, except for stored
+ * (not compressed) ones: their size and checksum must precede the content,
+ * so they are buffered in memory.
+ *
+ * @since 0.1
+ */
+final class PassthroughPartStore implements PartStore {
+    /**
+     * The name of the archive entry with content types.
+     */
+    private static final String CONTENT_TYPES = "[Content_Types].xml";
+
+    /**
+     * The archive of the template.
+     */
+    private final ZipFile template;
+
+    /**
+     * The compression of parts that are written again.
+     */
+    private final Compression compression;
+
+    /**
+     * The names of entries of the template by new names of renamed parts.
+     */
+    private final Map<String, String> renamed;
+
+    /**
+     * The store the package was loaded from, used for parts that are absent in the template.
+     */
+    private PartStore source;
+
+    /**
+     * The stream the archive is written to.
+     */
+    private TimedOutputStream sink;
+
+    /**
+     * The archive to be written.
+     */
+    private ZipArchiveOutputStream output;
+
+    /**
+     * The time spent in the compressor while writing parts, in nanoseconds.
+     */
+    private long elapsed;
+
+    /**
+     * Constructor.
+     * @param template The template file the package was loaded from
+     * @param compression The compression of parts that are written again
+     * @throws IOException If the template cannot be read as a ZIP archive
+     */
+    PassthroughPartStore(final File template, final Compression compression)
+        throws IOException {
+        this.template = ZipFile.builder().setFile(template).get();
+        this.compression = compression;
+        this.renamed = new HashMap<>();
+    }
+
+    /**
+     * Returns the time spent compressing parts that were written again.
+     * The time of serializing the parts and of writing the archive to the output
+     * is not counted.
+     * @return The time in nanoseconds
+     */
+    long getCompressionTime() {
+        return this.elapsed;
+    }
+
+    @Override
+    public InputStream loadPart(final String name) throws Docx4JException {
+        final ZipArchiveEntry entry = this.findEntry(name);
+        InputStream result = null;
+        if (entry != null) {
+            try {
+                result = this.template.getInputStream(entry);
+            } catch (final IOException exception) {
+                throw new Docx4JException(String.format("Cannot read part '%s'", name), exception);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Renames the part. The entry of the template is not changed, but it is
+     * loaded and copied to the output under the new name.
+     * @param previous The previous name of the part
+     * @param next The new name of the part
+     */
+    @Override
+    public void rename(final PartName previous, final PartName next) {
+        final String name = PassthroughPartStore.getEntryName(previous.getName());
+        this.renamed.put(
+            PassthroughPartStore.getEntryName(next.getName()),
+            this.renamed.getOrDefault(name, name)
+        );
+        this.renamed.remove(name);
+    }
+
+    @Override
+    public long getPartSize(final String name) throws Docx4JException {
+        final ZipArchiveEntry entry = this.findEntry(name);
+        if (entry == null) {
+            throw new Docx4JException(String.format("Part '%s' not found", name));
+        }
+        return entry.getSize();
+    }
+
+    @Override
+    public void setOutputStream(final OutputStream stream) {
+        this.sink = new TimedOutputStream(stream);
+        this.output = new ZipArchiveOutputStream(this.sink);
+        this.output.setLevel(this.compression.getLevel());
+        this.elapsed = 0;
+    }
+
+    @Override
+    public void saveContentTypes(final ContentTypeManager manager) throws Docx4JException {
+        try (OutputStream stream = this.openEntry(PassthroughPartStore.CONTENT_TYPES)) {
+            manager.marshal(stream);
+        } catch (final IOException | JAXBException exception) {
+            throw new Docx4JException("Cannot write content types", exception);
+        }
+    }
+
+    @Override
+    public void saveJaxbXmlPart(final JaxbXmlPart part) throws Docx4JException {
+        final String name = PassthroughPartStore.getEntryName(part);
+        if (part.isUnmarshalled()) {
+            try (OutputStream stream = this.openEntry(name)) {
+                part.marshal(stream);
+            } catch (final IOException | JAXBException exception) {
+                throw PassthroughPartStore.wrap(part, exception);
+            }
+        } else if (this.isChanged(name) || !this.copyRaw(name)) {
+            this.copyFromSource(part);
+        }
+    }
+
+    @Override
+    public void saveCustomXmlDataStoragePart(
+        final CustomXmlDataStoragePart part) throws Docx4JException {
+        try (OutputStream stream = this.openEntry(PassthroughPartStore.getEntryName(part))) {
+            part.getData().writeDocument(stream);
+        } catch (final IOException exception) {
+            throw PassthroughPartStore.wrap(part, exception);
+        }
+    }
+
+    @Override
+    public void saveXmlPart(final XmlPart part) throws Docx4JException {
+        try (OutputStream stream = this.openEntry(PassthroughPartStore.getEntryName(part))) {
+            XmlUtils.getTransformerFactory().newTransformer().transform(
+                new DOMSource(part.getDocument()),
+                new StreamResult(stream)
+            );
+        } catch (final IOException | TransformerException exception) {
+            throw PassthroughPartStore.wrap(part, exception);
+        }
+    }
+
+    @Override
+    public void saveBinaryPart(final Part part) throws Docx4JException {
+        final String name = PassthroughPartStore.getEntryName(part);
+        if (part instanceof BinaryPart && ((BinaryPart) part).isLoaded()) {
+            try (OutputStream stream = this.openEntry(name)) {
+                stream.write(((BinaryPart) part).getBytes());
+            } catch (final IOException exception) {
+                throw PassthroughPartStore.wrap(part, exception);
+            }
+        } else if (this.isChanged(name) || !this.copyRaw(name)) {
+            this.copyFromSource(part);
+        }
+    }
+
+    @Override
+    public void finishSave() throws Docx4JException {
+        try {
+            this.output.finish();
+            this.output.flush();
+        } catch (final IOException exception) {
+            throw new Docx4JException("Cannot finish the archive", exception);
+        }
+    }
+
+    @Override
+    public void setSourcePartStore(final PartStore store) {
+        this.source = store;
+    }
+
+    @Override
+    public void dispose() {
+        IOUtils.closeQuietly(this.template);
+    }
+
+    /**
+     * Checks if the store the package was loaded from holds a changed version of the part.
+     * @param name The name of the part, without the leading slash
+     * @return Checking result
+     */
+    private boolean isChanged(final String name) {
+        return this.source instanceof ChangedPartStore
+            && ((ChangedPartStore) this.source).isChanged(name);
+    }
+
+    /**
+     * Starts writing the entry to the output with the specified compression.
+     * The entry is finished when the returned stream is closed.
+     * @param name The name of the entry
+     * @return The stream of the content of the entry
+     * @throws IOException If an error during writing occurs
+     */
+    private OutputStream openEntry(final String name) throws IOException {
+        return new BufferedOutputStream(new Entry(name));
+    }
+
+    /**
+     * Writes the content of the current entry to the archive.
+     * Only the time spent in the compressor is counted, not the time
+     * the archive spends writing to the output.
+     * @param data The content
+     * @param offset The start of the content in the array
+     * @param length The length of the content
+     * @throws IOException If an error during writing occurs
+     */
+    private void compress(final byte[] data, final int offset, final int length)
+        throws IOException {
+        final long start = System.nanoTime();
+        final long written = this.sink.getElapsed();
+        this.output.write(data, offset, length);
+        this.elapsed += System.nanoTime() - start - (this.sink.getElapsed() - written);
+    }
+
+    /**
+     * Finishes the current entry, flushing the rest of compressed data.
+     * Only the time spent in the compressor is counted.
+     * @throws IOException If an error during writing occurs
+     */
+    private void closeEntry() throws IOException {
+        final long start = System.nanoTime();
+        final long written = this.sink.getElapsed();
+        this.output.closeArchiveEntry();
+        this.elapsed += System.nanoTime() - start - (this.sink.getElapsed() - written);
+    }
+
+    /**
+     * Copies the entry of the template archive to the output without decompression.
+     * @param name The name of the entry
+     * @return {@code true} if the entry was copied, {@code false} if the template
+     *  does not contain it
+     * @throws Docx4JException If an error during copying occurs
+     */
+    private boolean copyRaw(final String name) throws Docx4JException {
+        final ZipArchiveEntry entry = this.findEntry(name);
+        boolean result = false;
+        if (entry != null) {
+            try (InputStream stream = this.template.getRawInputStream(entry)) {
+                this.output.addRawArchiveEntry(
+                    PassthroughPartStore.withName(entry, name), stream
+                );
+            } catch (final IOException exception) {
+                throw new Docx4JException(String.format("Cannot copy part '%s'", name), exception);
+            }
+            result = true;
+        }
+        return result;
+    }
+
+    /**
+     * Writes the unchanged part loaded from the store the package was loaded from.
+     * @param part The part
+     * @throws Docx4JException If the part is not found or cannot be written
+     */
+    private void copyFromSource(final Part part) throws Docx4JException {
+        final String name = PassthroughPartStore.getEntryName(part);
+        if (this.source == null) {
+            throw new Docx4JException(String.format("Part '%s' not found", name));
+        }
+        try (InputStream stream = this.source.loadPart(name)) {
+            if (stream == null) {
+                throw new Docx4JException(String.format("Part '%s' not found", name));
+            }
+            try (OutputStream entry = this.openEntry(name)) {
+                IOUtils.copy(stream, entry);
+            }
+        } catch (final IOException exception) {
+            throw PassthroughPartStore.wrap(part, exception);
+        }
+    }
+
+    /**
+     * Returns the entry of the template archive that holds the part, taking into account
+     * renamed parts.
+     * @param name The name of the part, without the leading slash
+     * @return The entry or {@code null} if the template does not contain the part
+     */
+    private ZipArchiveEntry findEntry(final String name) {
+        final ZipArchiveEntry result;
+        if (this.renamed.containsKey(name)) {
+            result = this.template.getEntry(this.renamed.get(name));
+        } else if (this.renamed.containsValue(name)) {
+            result = null;
+        } else {
+            result = this.template.getEntry(name);
+        }
+        return result;
+    }
+
+    /**
+     * Creates a copy of the entry of the template archive with another name.
+     * The compression method, the sizes and the checksum are kept, so the content
+     * of the entry may be copied as it is.
+     * @param entry The entry
+     * @param name The name of the copy
+     * @return The entry with the specified name
+     */
+    private static ZipArchiveEntry withName(final ZipArchiveEntry entry, final String name) {
+        ZipArchiveEntry result = entry;
+        if (!name.equals(entry.getName())) {
+            result = new ZipArchiveEntry(name);
+            result.setMethod(entry.getMethod());
+            result.setTime(entry.getTime());
+            result.setCrc(entry.getCrc());
+            result.setSize(entry.getSize());
+            result.setCompressedSize(entry.getCompressedSize());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the name of the archive entry of the part.
+     * @param part The part
+     * @return The entry name, without the leading slash
+     */
+    private static String getEntryName(final Part part) {
+        return PassthroughPartStore.getEntryName(part.getPartName().getName());
+    }
+
+    /**
+     * Returns the name of the archive entry by the name of the part.
+     * @param name The name of the part
+     * @return The entry name, without the leading slash
+     */
+    private static String getEntryName(final String name) {
+        String result = name;
+        if (name.startsWith("/")) {
+            result = name.substring(1);
+        }
+        return result;
+    }
+
+    /**
+     * Wraps the exception thrown while the part was written.
+     * @param part The part
+     * @param exception The exception
+     * @return The wrapping exception
+     */
+    private static Docx4JException wrap(final Part part, final Exception exception) {
+        return new Docx4JException(
+            String.format("Cannot write part '%s'", part.getPartName().getName()),
+            exception
+        );
+    }
+
+    /**
+     * Stream of the content of an archive entry. The content is compressed as it is
+     * written, except for stored entries: since the output may not be seekable,
+     * they are buffered to compute their size and checksum in advance.
+     *
+     * @since 0.1
+     */
+    private final class Entry extends OutputStream {
+        /**
+         * The entry.
+         */
+        private final ZipArchiveEntry entry;
+
+        /**
+         * The buffer of the content of a stored entry or {@code null}
+         * if the content is compressed as it is written.
+         */
+        private final ByteArrayOutputStream buffer;
+
+        /**
+         * Identifies if the entry is finished.
+         */
+        private boolean closed;
+
+        /**
+         * Constructor.
+         * @param name The name of the entry
+         * @throws IOException If an error during writing occurs
+         */
+        Entry(final String name) throws IOException {
+            this.entry = new ZipArchiveEntry(name);
+            this.entry.setMethod(PassthroughPartStore.this.compression.getMethod());
+            if (this.entry.getMethod() == ZipEntry.STORED) {
+                this.buffer = new ByteArrayOutputStream();
+            } else {
+                this.buffer = null;
+                PassthroughPartStore.this.output.putArchiveEntry(this.entry);
+            }
+        }
+
+        @Override
+        public void write(final int value) throws IOException {
+            this.write(new byte[] {(byte) value}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] data, final int offset, final int length)
+            throws IOException {
+            if (this.buffer == null) {
+                PassthroughPartStore.this.compress(data, offset, length);
+            } else {
+                this.buffer.write(data, offset, length);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!this.closed) {
+                this.closed = true;
+                if (this.buffer != null) {
+                    final byte[] data = this.buffer.toByteArray();
+                    final CRC32 crc = new CRC32();
+                    crc.update(data);
+                    this.entry.setSize(data.length);
+                    this.entry.setCompressedSize(data.length);
+                    this.entry.setCrc(crc.getValue());
+                    PassthroughPartStore.this.output.putArchiveEntry(this.entry);
+                    PassthroughPartStore.this.compress(data, 0, data.length);
+                }
+                PassthroughPartStore.this.closeEntry();
+            }
+        }
+    }
+}
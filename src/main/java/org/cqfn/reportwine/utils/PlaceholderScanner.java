@@ -0,0 +1,149 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.reportwine.utils;
+
+/**
+ * Scanner of variable placeholders like {@code ${name}} in a text.
+ * Placeholders are found in a single pass over the text, without regular expressions:
+ * each call of {@link #next()} continues from the end of the previous placeholder.
+ * If a placeholder is not closed before another one starts, like in {@code ${a ${b}},
+ * the inner placeholder is taken.
+ * Names consist of the characters allowed by the YARG alias pattern
+ * {@code [A-z0-9_.#]}, which include brackets of indexes like {@code ${items[0]}},
+ * so texts like {@code ${first name}} are not placeholders.
+ *
+ * @since 0.1
+ */
+public final class PlaceholderScanner {
+    /**
+     * The scanned text.
+     */
+    private final CharSequence text;
+
+    /**
+     * The index of the first character of the current placeholder.
+     */
+    private int start;
+
+    /**
+     * The index after the last character of the current placeholder.
+     */
+    private int end;
+
+    /**
+     * Constructor.
+     * @param text The text to be scanned
+     */
+    public PlaceholderScanner(final CharSequence text) {
+        this.text = text;
+        this.start = -1;
+        this.end = 0;
+    }
+
+    /**
+     * Checks if the text contains at least one placeholder.
+     * @param text The text
+     * @return Checking result
+     */
+    public static boolean contains(final CharSequence text) {
+        return new PlaceholderScanner(text).next();
+    }
+
+    /**
+     * Finds the next placeholder.
+     * @return {@code true} if a placeholder is found, {@code false} if there
+     *  are no more placeholders in the text
+     */
+    public boolean next() {
+        final int length = this.text.length();
+        int open = -1;
+        int idx = this.end;
+        boolean found = false;
+        while (idx < length && !found) {
+            final char chr = this.text.charAt(idx);
+            if (chr == '$' && idx + 1 < length && this.text.charAt(idx + 1) == '{') {
+                open = idx;
+                idx += 2;
+            } else {
+                if (chr == '}' && open >= 0 && idx > open + 2) {
+                    this.start = open;
+                    this.end = idx + 1;
+                    found = true;
+                } else if (!PlaceholderScanner.isNameChar(chr)) {
+                    open = -1;
+                }
+                idx += 1;
+            }
+        }
+        if (!found) {
+            this.start = -1;
+            this.end = length;
+        }
+        return found;
+    }
+
+    /**
+     * Returns the index of the first character of the current placeholder,
+     * that is, of the dollar sign.
+     * @return The index
+     */
+    public int getStart() {
+        return this.start;
+    }
+
+    /**
+     * Returns the index after the last character of the current placeholder,
+     * that is, after the closing brace.
+     * @return The index
+     */
+    public int getEnd() {
+        return this.end;
+    }
+
+    /**
+     * Returns the index of the first character of the name of the current placeholder.
+     * @return The index
+     */
+    public int getNameStart() {
+        return this.start + 2;
+    }
+
+    /**
+     * Returns the index after the last character of the name of the current placeholder.
+     * @return The index
+     */
+    public int getNameEnd() {
+        return this.end - 1;
+    }
+
+    /**
+     * Checks if the character may be a part of a variable name, that is, it is
+     * in the range {@code A-z} of ASCII, a digit, a dot or a number sign.
+     * @param chr The character
+     * @return Checking result
+     */
+    private static boolean isNameChar(final char chr) {
+        return chr >= 'A' && chr <= 'z' || chr >= '0' && chr <= '9' || chr == '.' || chr == '#';
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.reportwine.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import org.docx4j.TraversalUtil;
+import org.docx4j.dml.CTRegularTextRun;
+import org.docx4j.dml.CTTable;
+import org.docx4j.dml.CTTextLineBreak;
+import org.docx4j.dml.CTTextParagraph;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.packages.PresentationMLPackage;
+import org.docx4j.openpackaging.parts.PresentationML.SlidePart;
+import org.pptx4j.Pptx4jException;
+
+/**
+ * Cache of compiled PPTX templates.
+ * A template is compiled once: variable placeholders and band names are often split
+ * between several text runs of a paragraph, and compilation joins the parts of each
+ * of them into the run where it starts. Other runs, their formatting and line breaks
+ * are kept, so paragraphs without data are rendered as in the original template.
+ * The compiled template is stored in a directory and is used instead of the original
+ * one while the original is not changed.
+ *
+ * @since 0.1
+ */
+public final class PptxTemplateCache {
+    /**
+     * The extension of compiled templates.
+     */
+    private static final String EXTENSION = ".pptx";
+
+    /**
+     * The prefix of band names in top left cells of tables.
+     */
+    private static final String BAND = "##band=";
+
+    /**
+     * The directory to store compiled templates.
+     */
+    private final File directory;
+
+    /**
+     * Identifies if the keys of the cache are computed from the content of files.
+     */
+    private final boolean hashing;
+
+    /**
+     * Constructor.
+     * @param directory The directory to store compiled templates
+     * @param hashing Identifies if the keys of the cache should be computed
+     *  from the content of files
+     */
+    public PptxTemplateCache(final File directory, final boolean hashing) {
+        this.directory = directory;
+        this.hashing = hashing;
+    }
+
+    /**
+     * Returns the compiled template, compiling the template only if it is not
+     * found in the cache.
+     * The template is written to a temporary file first and then moved, so concurrent
+     * readers never see a partially written file.
+     * @param file The PPTX template file
+     * @return The compiled template file
+     * @throws IOException If an error during reading or writing files occurs
+     * @throws Docx4JException If an error occurs during loading of the template
+     */
+    public File compile(final File file) throws IOException, Docx4JException {
+        final Path path = this.directory.toPath().resolve(
+            FileKeys.digest(
+                FileKeys.key(file, this.hashing).getBytes(StandardCharsets.UTF_8)
+            ).concat(PptxTemplateCache.EXTENSION)
+        );
+        if (!Files.exists(path)) {
+            final PresentationMLPackage pptx = PresentationMLPackage.load(file);
+            try {
+                PptxTemplateCache.normalize(pptx);
+            } catch (final Pptx4jException exception) {
+                throw new Docx4JException("Cannot compile pptx template", exception);
+            }
+            Files.createDirectories(this.directory.toPath());
+            final Path temp = Files.createTempFile(this.directory.toPath(), "pptx", ".tmp");
+            try {
+                new PackageWriter(file).save(pptx, temp.toFile());
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        return path.toFile();
+    }
+
+    /**
+     * Joins text runs that variable placeholders and band names of top left cells
+     * of tables are split between into the run where each of them starts.
+     * @param pptx The template
+     * @return The number of changed paragraphs
+     * @throws Pptx4jException If an error occurs during loading of slides
+     */
+    public static int normalize(final PresentationMLPackage pptx) throws Pptx4jException {
+        int count = 0;
+        for (final SlidePart slide : pptx.getMainPresentationPart().getSlideParts()) {
+            final TextVisitor visitor = new TextVisitor();
+            new TraversalUtil(
+                slide.getJaxbElement().getCSld().getSpTree().getSpOrGrpSpOrGraphicFrame(),
+                visitor
+            );
+            count += PptxTemplateCache.normalize(visitor);
+        }
+        return count;
+    }
+
+    /**
+     * Joins text runs of placeholders and band names in paragraphs and tables
+     * collected by the visitor.
+     * @param visitor The visitor that collected paragraphs and tables
+     * @return The number of changed paragraphs
+     */
+    static int normalize(final TextVisitor visitor) {
+        int count = 0;
+        for (final Map.Entry<CTTextParagraph, String> item : visitor.getMappings().entrySet()) {
+            final PlaceholderScanner scanner = new PlaceholderScanner(item.getValue());
+            boolean changed = false;
+            while (scanner.next()) {
+                if (PptxTemplateCache.join(
+                    item.getKey().getEGTextRun(), scanner.getStart(), scanner.getEnd()
+                )) {
+                    changed = true;
+                }
+            }
+            if (changed) {
+                count += 1;
+            }
+        }
+        for (final CTTable table : visitor.getTables()) {
+            final List<Object> head =
+                table.getTr().get(0).getTc().get(0).getTxBody().getP().get(0).getEGTextRun();
+            final String text = TextVisitor.concatParams(head);
+            final int start = text.indexOf(PptxTemplateCache.BAND);
+            if (start >= 0) {
+                final int end = text.indexOf(' ', start + PptxTemplateCache.BAND.length());
+                if (end > 0 && PptxTemplateCache.join(head, start, end + 1)) {
+                    count += 1;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Joins the text of the runs that the range of the text of the paragraph is split
+     * between into the run where the range starts.
+     * The range is not joined if it spans line breaks or other elements.
+     * @param runs The text runs of the paragraph
+     * @param start The index of the first character of the range
+     * @param end The index after the last character of the range
+     * @return Whether the runs are changed
+     */
+    private static boolean join(final List<Object> runs, final int start, final int end) {
+        final int first = PptxTemplateCache.find(runs, start);
+        final int last = PptxTemplateCache.find(runs, end - 1);
+        boolean plain = first >= 0 && last > first;
+        for (int idx = first; plain && idx <= last; idx += 1) {
+            plain = runs.get(idx) instanceof CTRegularTextRun;
+        }
+        if (plain) {
+            final CTRegularTextRun head = (CTRegularTextRun) runs.get(first);
+            final StringBuilder builder = new StringBuilder(PptxTemplateCache.getText(head));
+            for (int idx = first + 1; idx < last; idx += 1) {
+                builder.append(PptxTemplateCache.getText(runs.get(idx)));
+            }
+            final CTRegularTextRun tail = (CTRegularTextRun) runs.get(last);
+            final String rest = PptxTemplateCache.getText(tail);
+            final int split = end - PptxTemplateCache.offset(runs, last);
+            head.setT(builder.append(rest, 0, split).toString());
+            tail.setT(rest.substring(split));
+            runs.subList(first + 1, last).clear();
+            if (tail.getT().isEmpty()) {
+                runs.remove(first + 1);
+            }
+        }
+        return plain;
+    }
+
+    /**
+     * Finds the run that contains the character of the text of the paragraph.
+     * @param runs The text runs of the paragraph
+     * @param position The index of the character
+     * @return The index of the run or {@code -1} if the position is out of the text
+     */
+    private static int find(final List<Object> runs, final int position) {
+        int result = -1;
+        int offset = 0;
+        for (int idx = 0; result < 0 && idx < runs.size(); idx += 1) {
+            offset += PptxTemplateCache.getText(runs.get(idx)).length();
+            if (position < offset) {
+                result = idx;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the index of the first character of the run in the text of the paragraph.
+     * @param runs The text runs of the paragraph
+     * @param index The index of the run
+     * @return The index of the character
+     */
+    private static int offset(final List<Object> runs, final int index) {
+        int result = 0;
+        for (int idx = 0; idx < index; idx += 1) {
+            result += PptxTemplateCache.getText(runs.get(idx)).length();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the text of the element of the paragraph as it is concatenated
+     * by {@link TextVisitor#concatParams(List)}.
+     * @param run The text run, the line break or another element
+     * @return The text, empty for elements without text
+     */
+    private static String getText(final Object run) {
+        String result = "";
+        if (run instanceof CTRegularTextRun) {
+            result = String.valueOf(((CTRegularTextRun) run).getT());
+        } else if (run instanceof CTTextLineBreak) {
+            result = System.lineSeparator();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.docx4j.convert.out.common.preprocess.PartialDeepCopy;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.relationships.Namespaces;
+
+/**
+ * Cache of loaded DOCX templates.
+ * A template is read and unmarshalled only if it was not met before or it was changed,
+ * that is, its path, size and modification time differ from the cached ones
+ * (or its content, if content hashing is enabled).
+ * Each caller gets its own copy of the cached package: the parts that are filled
+ * with data (the document, headers, footers, styles and so on) are deep copied,
+ * and other parts, like images, embedded objects and themes, are shared by all copies
+ * and the cached package. The cached package itself is never given out.
+ *
+ * <p>The cache may be used by several threads, and copies may be rendered concurrently,
+ * as long as the shared parts are only read: the formatter fills the copied parts only,
+ * and the {@link PackageWriter} copies unchanged parts from the template file rather than
+ * from memory. A caller that modifies other parts must copy them itself.
+ * Only reading and unmarshalling is saved: placeholders are still searched by YARG
+ * in each copy while it is rendered.
+ *
+ * @since 0.1
+ */
+public final class TemplateCache {
+    /**
+     * The types of relationships of parts that are modified during rendering.
+     */
+    private static final Set<String> MODIFIED = Collections.unmodifiableSet(
+        new HashSet<>(
+            Arrays.asList(
+                Namespaces.DOCUMENT,
+                Namespaces.HEADER,
+                Namespaces.FOOTER,
+                Namespaces.FOOTNOTES,
+                Namespaces.ENDNOTES,
+                Namespaces.STYLES,
+                Namespaces.SETTINGS,
+                Namespaces.NUMBERING
+            )
+        )
+    );
+
+    /**
+     * The maximum number of templates stored in memory.
+     */
+    private final int capacity;
+
+    /**
+     * Identifies if the keys of the cache are computed from the content of files.
+     */
+    private final boolean hashing;
+
+    /**
+     * The recently used templates in the access order.
+     */
+    private final Map<String, DocxTemplate> memory;
+
+    /**
+     * Constructor.
+     * @param capacity The maximum number of templates stored in memory
+     * @param hashing Identifies if the keys of the cache should be computed
+     *  from the content of files
+     */
+    public TemplateCache(final int capacity, final boolean hashing) {
+        this.capacity = capacity;
+        this.hashing = hashing;
+        this.memory = new LinkedHashMap<>(capacity, 0.75f, true);
+    }
+
+    /**
+     * Returns a copy of the loaded template, loading the template only if it is not
+     * found in the cache. The information about the Table of Contents of the template
+     * is collected once, when the template is loaded.
+     * @param file The DOCX template file
+     * @return The copy of the template that may be modified
+     * @throws IOException If an error during reading the file occurs
+     * @throws Docx4JException If an error occurs during loading of the template
+     */
+    public DocxTemplate load(final File file) throws IOException, Docx4JException {
+        final String key = FileKeys.key(file, this.hashing);
+        DocxTemplate template;
+        synchronized (this.memory) {
+            template = this.memory.get(key);
+        }
+        if (template == null) {
+            template = new DocxTemplate(WordprocessingMLPackage.load(file));
+            synchronized (this.memory) {
+                this.memory.put(key, template);
+                if (this.memory.size() > this.capacity) {
+                    this.memory.remove(this.memory.keySet().iterator().next());
+                }
+            }
+        }
+        return template.withDocument(
+            (WordprocessingMLPackage) PartialDeepCopy.process(
+                template.getDocument(), TemplateCache.MODIFIED
+            )
+        );
+    }
+}
@@ -24,14 +24,15 @@
 
 package org.cqfn.reportwine.utils;
 
-import com.haulmont.yarg.formatters.impl.AbstractFormatter;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.docx4j.TraversalUtil;
 import org.docx4j.XmlUtils;
 import org.docx4j.dml.CTRegularTextRun;
+import org.docx4j.dml.CTTable;
 import org.docx4j.dml.CTTableCell;
 import org.docx4j.dml.CTTextBody;
 import org.docx4j.dml.CTTextLineBreak;
@@ -39,6 +40,8 @@ import org.docx4j.dml.CTTextParagraph;
 
 /**
  * Visitor of Docx4j objects that contain text.
+ * Tables met during the traversal are collected too, so a slide is walked only once
+ * to find both paragraphs with variables and tables to be filled.
  *
  * @since 0.1
  */
@@ -48,21 +51,35 @@ public final class TextVisitor extends TraversalUtil.CallbackImpl {
      */
     private final Map<CTTextParagraph, String> mappings;
 
+    /**
+     * The tables in the order they were met.
+     */
+    private final List<CTTable> tables;
+
     /**
      * Constructor.
      */
     public TextVisitor() {
-        this.mappings = new HashMap<>();
+        this.mappings = new LinkedHashMap<>();
+        this.tables = new ArrayList<>();
     }
 
     /**
      * Returns collected mappings of text paragraphs with the variable names.
-     * @return The mappings
+     * @return The mappings in the order of the document
      */
     public Map<CTTextParagraph, String> getMappings() {
         return this.mappings;
     }
 
+    /**
+     * Returns collected tables.
+     * @return The tables in the order of the document
+     */
+    public List<CTTable> getTables() {
+        return this.tables;
+    }
+
     @Override
     public List<Object> apply(final Object obj) {
         CTTextBody body = null;
@@ -70,6 +87,8 @@ public final class TextVisitor extends TraversalUtil.CallbackImpl {
             body = ((org.pptx4j.pml.Shape) obj).getTxBody();
         } else if (obj instanceof CTTableCell) {
             body = ((CTTableCell) obj).getTxBody();
+        } else if (obj instanceof CTTable) {
+            this.tables.add((CTTable) obj);
         }
         if (body != null) {
             this.processTextBody(body);
@@ -124,7 +143,7 @@ public final class TextVisitor extends TraversalUtil.CallbackImpl {
             String value = "";
             if (!params.isEmpty()) {
                 value = TextVisitor.concatParams(params);
-                if (AbstractFormatter.UNIVERSAL_ALIAS_PATTERN.matcher(value).find()) {
+                if (PlaceholderScanner.contains(value)) {
                     this.mappings.put(paragraph, value);
                 }
             }
@@ -133,19 +152,26 @@ public final class TextVisitor extends TraversalUtil.CallbackImpl {
 
     /**
      * Concatenates parts of text values to collect a full text.
+     * The text of a single run, as in compiled templates, is taken as it is.
      * @param params Parameters containing text parts
      * @return The full text
      */
-    private static String concatParams(final List<Object> params) {
-        final StringBuilder builder = new StringBuilder();
-        for (final Object value : params) {
-            if (value instanceof CTRegularTextRun) {
-                final CTRegularTextRun text = (CTRegularTextRun) value;
-                builder.append(text.getT());
-            } else if (value instanceof CTTextLineBreak) {
-                builder.append(System.lineSeparator());
+    static String concatParams(final List<Object> params) {
+        final String result;
+        if (params.size() == 1 && params.get(0) instanceof CTRegularTextRun) {
+            result = String.valueOf(((CTRegularTextRun) params.get(0)).getT());
+        } else {
+            final StringBuilder builder = new StringBuilder();
+            for (final Object value : params) {
+                if (value instanceof CTRegularTextRun) {
+                    final CTRegularTextRun text = (CTRegularTextRun) value;
+                    builder.append(text.getT());
+                } else if (value instanceof CTTextLineBreak) {
+                    builder.append(System.lineSeparator());
+                }
             }
+            result = builder.toString();
         }
-        return builder.toString();
+        return result;
     }
 }
@@ -0,0 +1,79 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.utils;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream that measures the time spent writing to the underlying stream.
+ *
+ * @since 0.1
+ */
+final class TimedOutputStream extends FilterOutputStream {
+    /**
+     * The time spent writing, in nanoseconds.
+     */
+    private long elapsed;
+
+    /**
+     * Constructor.
+     * @param stream The underlying stream
+     */
+    TimedOutputStream(final OutputStream stream) {
+        super(stream);
+    }
+
+    /**
+     * Returns the time spent writing to the underlying stream.
+     * @return The time in nanoseconds
+     */
+    long getElapsed() {
+        return this.elapsed;
+    }
+
+    @Override
+    public void write(final int value) throws IOException {
+        final long start = System.nanoTime();
+        this.out.write(value);
+        this.elapsed += System.nanoTime() - start;
+    }
+
+    @Override
+    public void write(final byte[] data, final int offset, final int length)
+        throws IOException {
+        final long start = System.nanoTime();
+        this.out.write(data, offset, length);
+        this.elapsed += System.nanoTime() - start;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        final long start = System.nanoTime();
+        this.out.flush();
+        this.elapsed += System.nanoTime() - start;
+    }
+}
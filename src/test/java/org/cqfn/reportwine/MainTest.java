@@ -27,7 +27,13 @@ package org.cqfn.reportwine;
 import com.beust.jcommander.ParameterException;
 import io.github.netmikey.logunit.api.LogCapturer;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.ZipFile;
+import org.apache.commons.io.IOUtils;
 import org.cqfn.reportwine.exceptions.BaseException;
 import org.cqfn.reportwine.exceptions.UnsupportedYamlFormat;
 import org.junit.jupiter.api.Assertions;
@@ -131,6 +137,56 @@ class MainTest {
         Assertions.assertFalse(caught);
     }
 
+    /**
+     * Test generation of pptx report from the project in JSON format.
+     * @param source A temporary directory
+     */
+    @Test
+    void testJsonProjectNoException(@TempDir final Path source) {
+        final String[] example = {
+            MainTest.TEMPLATE,
+            MainTest.TESTS_PATH.concat("simple_template.pptx"),
+            MainTest.OUTPUT,
+            source.resolve("report.pptx").toString(),
+            MainTest.PROJECT,
+            MainTest.TESTS_PATH.concat("project_valid.json"),
+        };
+        boolean caught = false;
+        try {
+            Main.main(example);
+        } catch (final BaseException | IOException | ParameterException exc) {
+            caught = true;
+        }
+        Assertions.assertFalse(caught);
+        this.logs.assertContains("PPTX Report generated");
+    }
+
+    /**
+     * Test passing several configuration files to main().
+     * @param source A temporary directory
+     */
+    @Test
+    void testNoExceptionWithSeveralConfigs(@TempDir final Path source) {
+        final String[] example = {
+            MainTest.TEMPLATE,
+            MainTest.TESTS_PATH.concat(MainTest.TEMPLATE_DOCX),
+            MainTest.OUTPUT,
+            source.resolve(MainTest.REPORT_DOCX).toString(),
+            MainTest.PROJECT,
+            MainTest.TESTS_PATH.concat("complex_description.yml"),
+            "--config",
+            MainTest.TESTS_PATH.concat("complex_description_no_code.yml"),
+            MainTest.TESTS_PATH.concat("config.yml"),
+        };
+        boolean caught = false;
+        try {
+            Main.main(example);
+        } catch (final BaseException | IOException | ParameterException exc) {
+            caught = true;
+        }
+        Assertions.assertFalse(caught);
+    }
+
     /**
      * Test passing no option to main().
      */
@@ -352,4 +408,102 @@ class MainTest {
         Assertions.assertFalse(caught);
         this.logs.assertContains("Template and output files should have similar extensions");
     }
+
+    /**
+     * Test that the project and configuration files loaded concurrently
+     * are merged in the order they are specified.
+     * @param source A temporary directory
+     */
+    @Test
+    void testConcurrentlyLoadedConfigsMergedInOrder(@TempDir final Path source)
+        throws IOException, BaseException {
+        final Path description = source.resolve("project.yml");
+        Files.write(
+            description,
+            Arrays.asList(
+                "project:", "  name: First", "  about: Text", "  main_steps: Steps"
+            )
+        );
+        final Path second = source.resolve("second.yml");
+        Files.write(second, Arrays.asList("project:", "  name: Second"));
+        final Path third = source.resolve("third.yml");
+        Files.write(third, Arrays.asList("project:", "  name: Third"));
+        final Path report = source.resolve("report.pptx");
+        Main.main(
+            MainTest.TEMPLATE,
+            MainTest.TESTS_PATH.concat("simple_template.pptx"),
+            MainTest.OUTPUT,
+            report.toString(),
+            MainTest.PROJECT,
+            description.toString(),
+            "--config",
+            second.toString(),
+            third.toString()
+        );
+        final String slide;
+        try (ZipFile zip = new ZipFile(report.toFile());
+            InputStream stream = zip.getInputStream(zip.getEntry("ppt/slides/slide1.xml"))) {
+            slide = IOUtils.toString(stream, StandardCharsets.UTF_8);
+        }
+        Assertions.assertTrue(slide.contains("Third"));
+        Assertions.assertFalse(slide.contains("Second"));
+        Assertions.assertFalse(slide.contains("First"));
+    }
+
+    /**
+     * Test that a failure of a configuration file loaded concurrently
+     * with the project is passed to the caller.
+     * @param source A temporary directory
+     */
+    @Test
+    void testFailureOfConcurrentlyLoadedConfig(@TempDir final Path source) {
+        final String[] example = {
+            MainTest.TEMPLATE,
+            MainTest.TESTS_PATH.concat(MainTest.TEMPLATE_DOCX),
+            MainTest.OUTPUT,
+            source.resolve(MainTest.REPORT_DOCX).toString(),
+            MainTest.PROJECT,
+            MainTest.TESTS_PATH.concat(MainTest.PROJECT_VALID),
+            "--config",
+            MainTest.TESTS_PATH.concat("config.yml"),
+            MainTest.TESTS_PATH.concat("project_invalid.yml"),
+        };
+        boolean caught = false;
+        String message = "";
+        try {
+            Main.main(example);
+        } catch (final BaseException exception) {
+            caught = true;
+            message = exception.getErrorMessage();
+        } catch (final IOException exception) {
+            message = exception.getMessage();
+        }
+        Assertions.assertTrue(caught);
+        Assertions.assertTrue(message.startsWith("Expected scalar value in the array"));
+        this.logs.assertContains("Cannot parse YAML data");
+    }
+
+    /**
+     * Test generation of docx reports several times with the cached template.
+     * @param source A temporary directory
+     */
+    @Test
+    void testDocxWithCachedTemplate(@TempDir final Path source)
+        throws BaseException, IOException {
+        for (int idx = 0; idx < 2; idx += 1) {
+            final Path report = source.resolve(String.format("report%d.docx", idx));
+            final String[] example = {
+                MainTest.TEMPLATE,
+                MainTest.TESTS_PATH.concat(MainTest.TEMPLATE_DOCX),
+                MainTest.OUTPUT,
+                report.toString(),
+                MainTest.PROJECT,
+                MainTest.TESTS_PATH.concat(MainTest.PROJECT_VALID),
+                "--cache",
+                source.resolve("cache").toString(),
+            };
+            Main.main(example);
+            Assertions.assertTrue(Files.size(report) > 0);
+        }
+    }
 }
@@ -0,0 +1,188 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.converters;
+
+import com.amihaiemil.eoyaml.Yaml;
+import com.haulmont.yarg.structure.BandData;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import org.cqfn.reportwine.exceptions.BaseException;
+import org.cqfn.reportwine.exceptions.ExpectedTextArray;
+import org.cqfn.reportwine.generators.TableSource;
+import org.cqfn.reportwine.model.Array;
+import org.cqfn.reportwine.model.Pair;
+import org.cqfn.reportwine.model.Text;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link IrToDocx4jConverter} class.
+ *
+ * @since 0.1
+ */
+class IrToDocx4jConverterTest {
+    /**
+     * The project with tables at different levels of nesting.
+     */
+    private static final String PROJECT = String.join(
+        "\n",
+        "project:",
+        "  name: MyProject",
+        "  team:",
+        "    - name: Ivan",
+        "      role: teamleader",
+        "    - name: Polina",
+        "      role:",
+        "        - developer",
+        "        - tester",
+        "  subproject:",
+        "    name: PartProject",
+        "    members:",
+        "      - name: Ivan",
+        "      - name: Polina",
+        "  stages:",
+        "    - title: Only stage",
+        "      steps:",
+        "        - goal: Explore",
+        "        - goal: Implement",
+        ""
+    );
+
+    /**
+     * Test that the IR is converted into the same mappings and tables
+     * as the ones obtained from YARG bindings.
+     */
+    @Test
+    void testSameResultAsYargConversion() throws IOException, BaseException {
+        final Pair info = new YamlToIrConverter(
+            Yaml.createYamlInput(IrToDocx4jConverterTest.PROJECT).readYamlMapping()
+        ).convert();
+        final YargToDocx4jConverter yarg =
+            new YargToDocx4jConverter(new IrToYargConverter(info).convert());
+        final IrToDocx4jConverter converter = new IrToDocx4jConverter(info);
+        Assertions.assertEquals(yarg.convert(), converter.convert());
+        final Map<String, List<BandData>> expected = yarg.getTables();
+        Assertions.assertEquals(6, expected.size());
+        final TableSource source = converter.getTables();
+        for (final Map.Entry<String, List<BandData>> table : expected.entrySet()) {
+            final List<Map<String, String>> rows = new LinkedList<>();
+            for (final BandData band : table.getValue()) {
+                final Map<String, String> row = new HashMap<>();
+                for (final Map.Entry<String, Object> item : band.getData().entrySet()) {
+                    row.put(item.getKey(), item.getValue().toString());
+                }
+                rows.add(row);
+            }
+            final List<Map<String, String>> actual = new LinkedList<>();
+            source.getRows(table.getKey()).forEach(actual::add);
+            Assertions.assertEquals(rows, actual, table.getKey());
+        }
+        Assertions.assertNull(source.getRows("stages", new String[] {"title"}));
+        final List<Map<String, String>> stages = new LinkedList<>();
+        source.getRows("stages").forEach(stages::add);
+        Assertions.assertEquals(
+            Collections.singletonList(Collections.singletonMap("title", "Only stage")), stages
+        );
+        Assertions.assertNull(source.getRows("name"));
+    }
+
+    /**
+     * Test that an array of mixed elements inside a table row is not converted.
+     */
+    @Test
+    void testMixedArrayInTableRow() {
+        final Pair info = new Pair(
+            "project",
+            new Array(
+                Arrays.asList(
+                    new Array(Collections.singletonList(new Pair("name", new Text("Ivan")))),
+                    new Array(
+                        Collections.singletonList(
+                            new Pair(
+                                "role",
+                                new Array(
+                                    Arrays.asList(
+                                        new Text("developer"),
+                                        new Array(Collections.emptyList())
+                                    )
+                                )
+                            )
+                        )
+                    )
+                )
+            )
+        );
+        Assertions.assertThrows(
+            ExpectedTextArray.class,
+            () -> new IrToDocx4jConverter(info).convert()
+        );
+    }
+
+    /**
+     * Test that rows taken as values of columns are the same as the ones taken
+     * as mappings, even if pairs of rows are listed in different orders.
+     */
+    @Test
+    void testRowsAsValuesOfColumns() throws IOException, BaseException {
+        final Pair info = new YamlToIrConverter(
+            Yaml.createYamlInput(
+                String.join(
+                    "\n",
+                    "project:",
+                    "  name: MyProject",
+                    "  team:",
+                    "    - name: Ivan",
+                    "      role: teamleader",
+                    "    - role: developer",
+                    "      name: Polina",
+                    "    - name: Oleg",
+                    ""
+                )
+            ).readYamlMapping()
+        ).convert();
+        final IrToDocx4jConverter converter = new IrToDocx4jConverter(info);
+        converter.convert();
+        final TableSource source = converter.getTables();
+        final String[] columns = {"role", "name", "age"};
+        final List<String[]> expected = new LinkedList<>();
+        for (final Map<String, String> row : source.getRows("team")) {
+            expected.add(new String[] {row.get("role"), row.get("name"), row.get("age")});
+        }
+        final List<String[]> actual = new LinkedList<>();
+        source.getRows("team", columns).forEach(actual::add);
+        Assertions.assertEquals(3, actual.size());
+        for (int idx = 0; idx < expected.size(); idx += 1) {
+            Assertions.assertArrayEquals(expected.get(idx), actual.get(idx));
+        }
+        Assertions.assertArrayEquals(new String[] {"developer", "Polina", null}, actual.get(1));
+        Assertions.assertArrayEquals(new String[] {null, "Oleg", null}, actual.get(2));
+        Assertions.assertNull(source.getRows("name", columns));
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.converters;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import org.cqfn.reportwine.exceptions.BaseException;
+import org.cqfn.reportwine.exceptions.UnsupportedJsonFormat;
+import org.cqfn.reportwine.model.Array;
+import org.cqfn.reportwine.model.Code;
+import org.cqfn.reportwine.model.Pair;
+import org.cqfn.reportwine.model.Text;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link JsonToIrConverter} class.
+ *
+ * @since 0.1
+ */
+class JsonToIrConverterTest {
+    /**
+     * Test conversion of a JSON with texts, a code and a table.
+     */
+    @Test
+    void testConversion() throws IOException, BaseException {
+        final String json = String.join(
+            "",
+            "{\"project\": {\"name\": \"MyProject\", \"stage\": 2, \"next\": \"$ return 3;\",",
+            "\"milestones\": [{\"description\": \"First\"}, {\"description\": \"Second\"}]}}"
+        );
+        final Pair result = new JsonToIrConverter(new StringReader(json)).convert();
+        final Pair expected = new Pair(
+            "project",
+            new Array(
+                Arrays.asList(
+                    new Pair("name", new Text("MyProject")),
+                    new Pair("stage", new Text("2")),
+                    new Pair("next", new Code(" return 3;")),
+                    new Pair(
+                        "milestones",
+                        new Array(
+                            Arrays.asList(
+                                new Array(
+                                    Collections.singletonList(
+                                        new Pair("description", new Text("First"))
+                                    )
+                                ),
+                                new Array(
+                                    Collections.singletonList(
+                                        new Pair("description", new Text("Second"))
+                                    )
+                                )
+                            )
+                        )
+                    )
+                )
+            )
+        );
+        Assertions.assertEquals(expected, result);
+    }
+
+    /**
+     * Test conversion of a JSON with several root keys and included files.
+     */
+    @Test
+    void testDefaultRootAndIncludes() throws IOException, BaseException {
+        final JsonToIrConverter conv = new JsonToIrConverter(
+            new StringReader(
+                "{\"include\": [\"a.json\", \"b.yml\"], \"x\": \"1\", \"y\": null, \"z\": true}"
+            )
+        );
+        final Pair result = conv.convert();
+        Assertions.assertEquals("document", result.getKey());
+        Assertions.assertEquals(
+            new Array(
+                Arrays.asList(new Pair("x", new Text("1")), new Pair("z", new Text("true")))
+            ),
+            result.getValue()
+        );
+        Assertions.assertEquals(Arrays.asList("a.json", "b.yml"), conv.getIncludes());
+    }
+
+    /**
+     * Test that a JSON without a root object is not supported.
+     */
+    @Test
+    void testUnsupportedFormat() throws IOException {
+        boolean caught = false;
+        try {
+            new JsonToIrConverter(new StringReader("[1, 2]")).convert();
+        } catch (final UnsupportedJsonFormat exception) {
+            caught = true;
+        } catch (final BaseException exception) {
+            caught = false;
+        }
+        Assertions.assertTrue(caught);
+    }
+}
@@ -199,6 +199,81 @@ class YamlToIrConverterTest {
         Assertions.assertEquals("three four five", ((Text) second).getValue());
     }
 
+    /**
+     * Test case: spaces in a folded block scalar should be collapsed
+     * and line breaks should be removed.
+     * @param dir The temporary directory
+     */
+    @Test
+    void testNormalizationOfFoldedScalar(@TempDir final Path dir) {
+        final List<String> content = new LinkedList<>();
+        content.add("project:");
+        content.add("  summary: >");
+        content.add("    The goal   of work");
+        content.add("    is to  explore");
+        final Pair root = this.convertYamlToPair(dir, content);
+        final Value value = root.getValue();
+        Assertions.assertTrue(value instanceof Pair);
+        final Value text = ((Pair) value).getValue();
+        Assertions.assertTrue(text instanceof Text);
+        Assertions.assertEquals("The goal of work is to explore", ((Text) text).getValue());
+    }
+
+    /**
+     * Test case: leading and repeated spaces in a literal block scalar should be removed.
+     * @param dir The temporary directory
+     */
+    @Test
+    void testNormalizationOfLiteralScalar(@TempDir final Path dir) {
+        final List<String> content = new LinkedList<>();
+        content.add("project:");
+        content.add("  summary: |");
+        content.add("      indented   line");
+        content.add("    next line");
+        final Pair root = this.convertYamlToPair(dir, content);
+        final Value value = root.getValue();
+        Assertions.assertTrue(value instanceof Pair);
+        final Value text = ((Pair) value).getValue();
+        Assertions.assertTrue(text instanceof Text);
+        Assertions.assertEquals("indented line next line", ((Text) text).getValue());
+    }
+
+    /**
+     * Test case: the style of block scalars should be recognized for each scalar,
+     * so line breaks become spaces only in the literal one.
+     * @param dir The temporary directory
+     */
+    @Test
+    void testLiteralAndFoldedScalarsInOneMapping(@TempDir final Path dir) {
+        final List<String> content = new LinkedList<>();
+        content.add("project:");
+        content.add("  literal: |");
+        content.add("    first");
+        content.add("    second");
+        content.add("  folded: >");
+        content.add("    third");
+        content.add("    fourth");
+        content.add("  plain: fifth");
+        final Pair root = this.convertYamlToPair(dir, content);
+        final Value value = root.getValue();
+        Assertions.assertTrue(value instanceof Array);
+        final Array array = (Array) value;
+        Assertions.assertEquals(3, array.size());
+        Assertions.assertEquals(
+            "first second",
+            ((Text) ((Pair) array.getValue(0)).getValue()).getValue(),
+            "The literal block scalar is not recognized"
+        );
+        Assertions.assertEquals(
+            "third fourth",
+            ((Text) ((Pair) array.getValue(1)).getValue()).getValue()
+        );
+        Assertions.assertEquals(
+            "fifth",
+            ((Text) ((Pair) array.getValue(2)).getValue()).getValue()
+        );
+    }
+
     /**
      * Converts a YAML file to the IR.
      * @param dir The temporary directory
@@ -26,6 +26,7 @@ package org.cqfn.reportwine.converters;
 
 import com.haulmont.yarg.structure.BandData;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Assertions;
@@ -122,4 +123,52 @@ class YargToDocx4jConverterTest {
         Assertions.assertNotNull(tables.get("subproject.members"));
         Assertions.assertNotNull(tables.get("project.subproject.members"));
     }
+
+    /**
+     * Test conversion of deeply nested bands: each value is available
+     * by its full name and by the short name with the name of its band.
+     */
+    @Test
+    void testConversionOfDeepBands() {
+        final BandData project = new BandData("project");
+        BandData parent = project;
+        final StringBuilder full = new StringBuilder("project");
+        for (int idx = 0; idx < 5; idx += 1) {
+            final BandData band = new BandData(String.format("level%d", idx), parent);
+            band.addData(YargToDocx4jConverterTest.NAME, String.valueOf(idx));
+            parent.addChild(band);
+            parent = band;
+            full.append('.').append(band.getName());
+        }
+        final Map<String, String> mappings = new YargToDocx4jConverter(project).convert();
+        Assertions.assertEquals(10, mappings.size());
+        Assertions.assertEquals(
+            "4",
+            mappings.get(full.append('.').append(YargToDocx4jConverterTest.NAME).toString())
+        );
+        Assertions.assertEquals("4", mappings.get("level4.name"));
+        Assertions.assertEquals("0", mappings.get("level0.name"));
+        Assertions.assertEquals("0", mappings.get("project.level0.name"));
+        Assertions.assertNull(mappings.get(YargToDocx4jConverterTest.NAME));
+    }
+
+    /**
+     * Test that a short name keeps its value when its full name is bound again
+     * as the short name of a nested band with the same name.
+     */
+    @Test
+    void testShortNameNotChangedByNestedBand() {
+        final BandData project = new BandData("project");
+        project.addData(YargToDocx4jConverterTest.NAME, "A");
+        final BandData nested = new BandData("project", project);
+        nested.addData(YargToDocx4jConverterTest.NAME, "B");
+        project.addChild(nested);
+        final Map<String, String> mappings = new YargToDocx4jConverter(project).convert();
+        Assertions.assertEquals("A", mappings.get(YargToDocx4jConverterTest.NAME));
+        Assertions.assertEquals("B", mappings.get("project.name"));
+        Assertions.assertEquals("B", mappings.get("project.project.name"));
+        Assertions.assertEquals(3, mappings.size());
+        Assertions.assertEquals(3, mappings.entrySet().size());
+        Assertions.assertEquals("A", new HashMap<>(mappings).get(YargToDocx4jConverterTest.NAME));
+    }
 }
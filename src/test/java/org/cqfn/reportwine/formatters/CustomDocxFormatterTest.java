@@ -0,0 +1,178 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.formatters;
+
+import java.util.List;
+import javax.xml.bind.JAXBElement;
+import org.docx4j.openpackaging.exceptions.InvalidFormatException;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPart;
+import org.docx4j.wml.Br;
+import org.docx4j.wml.ObjectFactory;
+import org.docx4j.wml.P;
+import org.docx4j.wml.R;
+import org.docx4j.wml.Text;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link CustomDocxFormatter} class.
+ *
+ * @since 0.1
+ */
+class CustomDocxFormatterTest {
+    /**
+     * The factory of WordprocessingML objects.
+     */
+    private static final ObjectFactory FACTORY = new ObjectFactory();
+
+    /**
+     * Test that newline characters in the middle of a text are replaced with line breaks.
+     */
+    @Test
+    void testNewLineInMiddle() throws InvalidFormatException {
+        final R run = CustomDocxFormatterTest.render("First¶Second");
+        Assertions.assertEquals("[First, BR, Second]", CustomDocxFormatterTest.describe(run));
+    }
+
+    /**
+     * Test that newline characters at the start and at the end of a text
+     * are replaced with line breaks, and empty texts are kept around them.
+     */
+    @Test
+    void testNewLinesAtEdges() throws InvalidFormatException {
+        final R run = CustomDocxFormatterTest.render("¶Text¶");
+        Assertions.assertEquals("[, BR, Text, BR, ]", CustomDocxFormatterTest.describe(run));
+    }
+
+    /**
+     * Test that each of consecutive newline characters is replaced with its own line break.
+     */
+    @Test
+    void testConsecutiveNewLines() throws InvalidFormatException {
+        final R run = CustomDocxFormatterTest.render("First¶¶¶Second");
+        Assertions.assertEquals(
+            "[First, BR, , BR, , BR, Second]",
+            CustomDocxFormatterTest.describe(run)
+        );
+    }
+
+    /**
+     * Test that the {@code xml:space} attribute of the text is kept in all of its lines,
+     * so spaces around line breaks are not lost.
+     */
+    @Test
+    void testSpacePreserved() throws InvalidFormatException {
+        final R run = CustomDocxFormatterTest.render(" First ¶ Second ");
+        final List<Object> content = run.getContent();
+        Assertions.assertEquals(3, content.size());
+        final Text first = CustomDocxFormatterTest.getText(content.get(0));
+        final Text second = CustomDocxFormatterTest.getText(content.get(2));
+        Assertions.assertEquals(" First ", first.getValue());
+        Assertions.assertEquals(" Second ", second.getValue());
+        Assertions.assertEquals("preserve", first.getSpace());
+        Assertions.assertEquals("preserve", second.getSpace());
+    }
+
+    /**
+     * Test that runs without newline characters are not changed.
+     */
+    @Test
+    void testRunWithoutNewLines() throws InvalidFormatException {
+        final WordprocessingMLPackage document = WordprocessingMLPackage.createPackage();
+        final MainDocumentPart part = document.getMainDocumentPart();
+        final R run = CustomDocxFormatterTest.addRun(part, "Text");
+        final Object before = run.getContent().get(0);
+        CustomDocxFormatter.replaceNewLines(part);
+        Assertions.assertEquals(1, run.getContent().size());
+        Assertions.assertSame(before, run.getContent().get(0));
+    }
+
+    /**
+     * Creates a document with one run that contains the text, and replaces
+     * newline characters in it.
+     * @param value The text of the run
+     * @return The run after replacement
+     * @throws InvalidFormatException If the document cannot be created
+     */
+    private static R render(final String value) throws InvalidFormatException {
+        final WordprocessingMLPackage document = WordprocessingMLPackage.createPackage();
+        final MainDocumentPart part = document.getMainDocumentPart();
+        final R run = CustomDocxFormatterTest.addRun(part, value);
+        CustomDocxFormatter.replaceNewLines(part);
+        return run;
+    }
+
+    /**
+     * Adds a paragraph with one run to the document.
+     * The text of the run preserves spaces.
+     * @param part The main part of the document
+     * @param value The text of the run
+     * @return The added run
+     */
+    private static R addRun(final MainDocumentPart part, final String value) {
+        final Text text = CustomDocxFormatterTest.FACTORY.createText();
+        text.setValue(value);
+        text.setSpace("preserve");
+        final R run = CustomDocxFormatterTest.FACTORY.createR();
+        run.getContent().add(CustomDocxFormatterTest.FACTORY.createRT(text));
+        final P paragraph = CustomDocxFormatterTest.FACTORY.createP();
+        paragraph.getContent().add(run);
+        part.getContent().add(paragraph);
+        return run;
+    }
+
+    /**
+     * Describes the content of the run as a list of texts and {@code BR} marks
+     * for line breaks.
+     * @param run The run
+     * @return The description
+     */
+    private static String describe(final R run) {
+        final StringBuilder builder = new StringBuilder("[");
+        boolean first = true;
+        for (final Object item : run.getContent()) {
+            if (!first) {
+                builder.append(", ");
+            }
+            first = false;
+            if (item instanceof Br) {
+                builder.append("BR");
+            } else {
+                builder.append(CustomDocxFormatterTest.getText(item).getValue());
+            }
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * Returns the text of the item of the run.
+     * @param item The item of the run, a {@code w:t} element
+     * @return The text
+     */
+    private static Text getText(final Object item) {
+        return (Text) ((JAXBElement<?>) item).getValue();
+    }
+}
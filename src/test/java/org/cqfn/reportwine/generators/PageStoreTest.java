@@ -0,0 +1,138 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.generators;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import javax.xml.bind.JAXBException;
+import org.apache.commons.io.IOUtils;
+import org.cqfn.reportwine.utils.PackageWriter;
+import org.docx4j.dml.CTRegularTextRun;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.packages.PresentationMLPackage;
+import org.docx4j.openpackaging.parts.PartName;
+import org.docx4j.openpackaging.parts.PresentationML.SlidePart;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pptx4j.Pptx4jException;
+import org.pptx4j.pml.Shape;
+import org.pptx4j.pml.Sld;
+
+/**
+ * Test for {@link PageStore} class.
+ *
+ * @since 0.1
+ */
+class PageStoreTest {
+    /**
+     * The template for testing.
+     */
+    private static final String TEMPLATE = "src/test/sample/simple_template.pptx";
+
+    /**
+     * Test that a released page that has the name of a slide of the template
+     * is saved from the store, not copied from the template.
+     * @param dir The temporary directory
+     */
+    @Test
+    void testPageNotCopiedFromTemplate(@TempDir final Path dir)
+        throws IOException, JAXBException, Docx4JException, Pptx4jException {
+        final File template = new File(PageStoreTest.TEMPLATE);
+        final PresentationMLPackage pptx = PresentationMLPackage.load(template);
+        final SlidePart slide = pptx.getMainPresentationPart().getSlide(0);
+        final List<Object> runs = ((Shape) slide.getJaxbElement().getCSld().getSpTree()
+            .getSpOrGrpSpOrGraphicFrame().get(0)).getTxBody().getP().get(0).getEGTextRun();
+        ((CTRegularTextRun) runs.get(0)).setT("Page");
+        final PageStore store = new PageStore(pptx.getSourcePartStore());
+        pptx.setSourcePartStore(store);
+        final File output = dir.resolve("result.pptx").toFile();
+        try {
+            final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            slide.marshal(buffer);
+            store.put(slide, buffer.toByteArray());
+            slide.setJaxbElement((Sld) null);
+            Assertions.assertTrue(store.isChanged("ppt/slides/slide1.xml"));
+            new PackageWriter(template).save(pptx, output);
+        } finally {
+            store.dispose();
+        }
+        final SlidePart saved =
+            PresentationMLPackage.load(output).getMainPresentationPart().getSlide(0);
+        Assertions.assertTrue(TestSlides.collectAllText(saved).startsWith("Page"));
+    }
+
+    /**
+     * Test that a renamed page is loaded by the new name only.
+     */
+    @Test
+    void testRenamedPage() throws IOException, Docx4JException, Pptx4jException {
+        final PresentationMLPackage pptx =
+            PresentationMLPackage.load(new File(PageStoreTest.TEMPLATE));
+        final SlidePart slide = pptx.getMainPresentationPart().getSlide(0);
+        final PageStore store = new PageStore(pptx.getSourcePartStore());
+        try {
+            store.put(slide, "<page/>".getBytes(StandardCharsets.UTF_8));
+            store.rename(slide.getPartName(), new PartName("/ppt/slides/slide9.xml"));
+            Assertions.assertFalse(store.isChanged("ppt/slides/slide1.xml"));
+            Assertions.assertTrue(store.isChanged("ppt/slides/slide9.xml"));
+            Assertions.assertEquals(7, store.getPartSize("ppt/slides/slide9.xml"));
+            try (InputStream stream = store.loadPart("ppt/slides/slide9.xml")) {
+                Assertions.assertEquals(
+                    "<page/>", IOUtils.toString(stream, StandardCharsets.UTF_8)
+                );
+            }
+        } finally {
+            store.dispose();
+        }
+    }
+
+    /**
+     * Test that parts of the template and pages are found in the store,
+     * so new slides do not take their names.
+     */
+    @Test
+    void testExistingParts() throws IOException, Docx4JException, Pptx4jException {
+        final PresentationMLPackage pptx =
+            PresentationMLPackage.load(new File(PageStoreTest.TEMPLATE));
+        final SlidePart slide = pptx.getMainPresentationPart().getSlide(0);
+        final PageStore store = new PageStore(pptx.getSourcePartStore());
+        try {
+            store.put(slide, "<page/>".getBytes(StandardCharsets.UTF_8));
+            store.rename(slide.getPartName(), new PartName("/ppt/slides/slide9.xml"));
+            Assertions.assertTrue(PageStore.exists(store, "ppt/slides/slide1.xml"));
+            Assertions.assertTrue(PageStore.exists(store, "ppt/slides/slide9.xml"));
+            Assertions.assertFalse(PageStore.exists(store, "ppt/slides/slide8.xml"));
+            Assertions.assertFalse(PageStore.exists(null, "ppt/slides/slide1.xml"));
+        } finally {
+            store.dispose();
+        }
+    }
+}
@@ -24,14 +24,25 @@
 
 package org.cqfn.reportwine.generators;
 
+import com.amihaiemil.eoyaml.Yaml;
 import com.haulmont.yarg.structure.BandData;
 import java.io.File;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import javax.xml.bind.JAXBException;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.cqfn.reportwine.converters.IrToDocx4jConverter;
+import org.cqfn.reportwine.converters.YamlToIrConverter;
 import org.cqfn.reportwine.converters.YargToDocx4jConverter;
+import org.cqfn.reportwine.utils.Compression;
+import org.cqfn.reportwine.utils.PptxTemplateCache;
+import org.docx4j.Docx4J;
 import org.docx4j.dml.CTRegularTextRun;
-import org.docx4j.jaxb.XPathBinderAssociationIsPartialException;
 import org.docx4j.openpackaging.exceptions.Docx4JException;
 import org.docx4j.openpackaging.packages.PresentationMLPackage;
 import org.docx4j.openpackaging.parts.PresentationML.SlidePart;
@@ -39,6 +50,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.pptx4j.Pptx4jException;
+import org.pptx4j.pml.Shape;
 
 /**
  * Test for {@link PptxGenerator} class.
@@ -65,7 +77,8 @@ class PptxGeneratorTest {
         this.checkContentEquality(
             this.data.simpleExample(),
             "simple",
-            source
+            source,
+            null
         );
     }
 
@@ -78,21 +91,320 @@ class PptxGeneratorTest {
         this.checkContentEquality(
             this.data.complexExample(),
             "complex",
-            source
+            source,
+            null
         );
     }
 
+    /**
+     * Test generation of pptx report with slides rendered in parallel.
+     * @param source A temporary directory
+     */
+    @Test
+    void testParallelPptxReportGeneration(@TempDir final Path source) {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            this.checkContentEquality(
+                this.data.complexExample(),
+                "complex",
+                source,
+                executor
+            );
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test generation of pptx report with a slide repeated for each item of a band.
+     * @param source A temporary directory
+     */
+    @Test
+    void testRepeatedSlides(@TempDir final Path source) throws Exception {
+        final PresentationMLPackage origin = PptxGeneratorTest.loadSimpleTemplate();
+        final File template =
+            PptxGeneratorTest.createTemplate(origin, "##slides=teams ${name}", source);
+        final BandData root = new BandData("project");
+        final List<BandData> teams = new ArrayList<>();
+        for (final String name : new String[] {"Alpha", "Beta", "Gamma"}) {
+            final BandData team = new BandData("teams", root);
+            team.addData("name", name);
+            teams.add(team);
+        }
+        final Map<String, List<BandData>> tables = new HashMap<>();
+        tables.put("teams", teams);
+        final File output = source.resolve("report.pptx").toFile();
+        new PptxGenerator(Collections.emptyMap(), tables).renderDocument(template, output);
+        final PresentationMLPackage result = PresentationMLPackage.load(output);
+        final List<SlidePart> slides = result.getMainPresentationPart().getSlideParts();
+        Assertions.assertEquals(4, slides.size());
+        Assertions.assertEquals("Alpha", TestSlides.collectAllText(slides.get(0)));
+        Assertions.assertEquals("Beta", TestSlides.collectAllText(slides.get(1)));
+        Assertions.assertEquals("Gamma", TestSlides.collectAllText(slides.get(2)));
+        Assertions.assertEquals(
+            TestSlides.collectAllText(origin.getMainPresentationPart().getSlide(1)),
+            TestSlides.collectAllText(slides.get(3))
+        );
+        for (final SlidePart slide : slides) {
+            Assertions.assertNotNull(slide.getSlideLayoutPart());
+        }
+    }
+
+    /**
+     * Test that a slide repeated for a band without items is removed.
+     * @param source A temporary directory
+     */
+    @Test
+    void testRepeatedSlideWithoutItems(@TempDir final Path source) throws Exception {
+        final PresentationMLPackage origin = PptxGeneratorTest.loadSimpleTemplate();
+        final File template = PptxGeneratorTest.createTemplate(origin, "##slides=teams", source);
+        final Map<String, List<BandData>> tables = new HashMap<>();
+        tables.put("teams", Collections.emptyList());
+        final File output = source.resolve("report.pptx").toFile();
+        new PptxGenerator(Collections.emptyMap(), tables).renderDocument(template, output);
+        final List<SlidePart> slides =
+            PresentationMLPackage.load(output).getMainPresentationPart().getSlideParts();
+        Assertions.assertEquals(1, slides.size());
+        Assertions.assertEquals(
+            TestSlides.collectAllText(origin.getMainPresentationPart().getSlide(1)),
+            TestSlides.collectAllText(slides.get(0))
+        );
+    }
+
+    /**
+     * Test that a slide repeated for a YAML sequence of one item is rendered once.
+     * @param source A temporary directory
+     */
+    @Test
+    void testRepeatedSlideOfOneItem(@TempDir final Path source) throws Exception {
+        final PresentationMLPackage origin = PptxGeneratorTest.loadSimpleTemplate();
+        final List<SlidePart> slides = PptxGeneratorTest.renderRepeatedSlide(
+            origin, source,
+            "project:\n  title: Demo\n  teams:\n    - name: Alpha\n      lead: Person\n"
+        );
+        Assertions.assertEquals(2, slides.size());
+        Assertions.assertEquals("Alpha", TestSlides.collectAllText(slides.get(0)));
+    }
+
+    /**
+     * Test that a slide repeated for an empty YAML sequence is removed.
+     * @param source A temporary directory
+     */
+    @Test
+    void testRepeatedSlideOfEmptySequence(@TempDir final Path source) throws Exception {
+        final PresentationMLPackage origin = PptxGeneratorTest.loadSimpleTemplate();
+        final List<SlidePart> slides = PptxGeneratorTest.renderRepeatedSlide(
+            origin, source, "project:\n  title: Demo\n  teams: []\n"
+        );
+        Assertions.assertEquals(1, slides.size());
+        Assertions.assertEquals(
+            TestSlides.collectAllText(origin.getMainPresentationPart().getSlide(1)),
+            TestSlides.collectAllText(slides.get(0))
+        );
+    }
+
+    /**
+     * Test generation of pptx report with a table split between slides.
+     * @param source A temporary directory
+     */
+    @Test
+    void testTablePagination(@TempDir final Path source) throws Exception {
+        final YargToDocx4jConverter converter =
+            new YargToDocx4jConverter(this.data.complexExample());
+        final PptxGenerator generator = new PptxGenerator(
+            converter.convert(), new BandTables(converter.getTables()),
+            Compression.DEFAULT, null, 2
+        );
+        final File template =
+            new File(String.format("%scomplex_template.pptx", PptxGeneratorTest.TESTS_PATH));
+        final File copied = source.resolve("copied.pptx").toFile();
+        generator.renderDocument(template, copied);
+        final File saved = source.resolve("saved.pptx").toFile();
+        generator.renderDocument(PresentationMLPackage.load(template), saved);
+        for (final File output : new File[] {copied, saved}) {
+            final List<SlidePart> slides =
+                PresentationMLPackage.load(output).getMainPresentationPart().getSlideParts();
+            Assertions.assertEquals(5, slides.size());
+            final String first = TestSlides.collectAllText(slides.get(2));
+            final String second = TestSlides.collectAllText(slides.get(3));
+            Assertions.assertTrue(first.contains("Firststage"));
+            Assertions.assertTrue(first.contains("Secondstage"));
+            Assertions.assertFalse(first.contains("Laststage"));
+            Assertions.assertTrue(second.contains("Laststage"));
+            Assertions.assertFalse(second.contains("Firststage"));
+            Assertions.assertFalse(second.contains("${"));
+            Assertions.assertNotNull(slides.get(3).getSlideLayoutPart());
+        }
+    }
+
+    /**
+     * Test that the temporary file with pages is deleted if rendering fails
+     * after some pages are stored.
+     * @param source A temporary directory
+     */
+    @Test
+    void testPagesDeletedOnFailure(@TempDir final Path source) {
+        final YargToDocx4jConverter converter =
+            new YargToDocx4jConverter(this.data.complexExample());
+        final TableSource tables = new BandTables(converter.getTables());
+        final TableSource failing = band -> {
+            final Iterable<Map<String, String>> rows = tables.getRows(band);
+            Iterable<Map<String, String>> result = null;
+            if (rows != null) {
+                result = () -> new Iterator<Map<String, String>>() {
+                    private final Iterator<Map<String, String>> origin = rows.iterator();
+
+                    private int count;
+
+                    @Override
+                    public boolean hasNext() {
+                        return this.origin.hasNext();
+                    }
+
+                    @Override
+                    public Map<String, String> next() {
+                        this.count += 1;
+                        if (this.count > 2) {
+                            throw new IllegalStateException("Cannot read the row");
+                        }
+                        return this.origin.next();
+                    }
+                };
+            }
+            return result;
+        };
+        final int before = PptxGeneratorTest.countPageFiles();
+        boolean caught = false;
+        try {
+            new PptxGenerator(converter.convert(), failing, Compression.DEFAULT, null, 1)
+                .renderDocument(
+                    new File(
+                        String.format("%scomplex_template.pptx", PptxGeneratorTest.TESTS_PATH)
+                    ),
+                    source.resolve("report.pptx").toFile()
+                );
+        } catch (final IllegalStateException | Docx4JException | Pptx4jException exception) {
+            caught = true;
+        }
+        Assertions.assertTrue(caught);
+        Assertions.assertEquals(before, PptxGeneratorTest.countPageFiles());
+    }
+
+    /**
+     * Test generation of pptx report from the compiled template.
+     * @param source A temporary directory
+     */
+    @Test
+    void testCompiledPptxReportGeneration(@TempDir final Path source) throws Exception {
+        final File template = new PptxTemplateCache(source.resolve("cache").toFile(), false)
+            .compile(
+                new File(String.format("%scomplex_template.pptx", PptxGeneratorTest.TESTS_PATH))
+            );
+        final YargToDocx4jConverter converter =
+            new YargToDocx4jConverter(this.data.complexExample());
+        final File output = source.resolve("report.pptx").toFile();
+        new PptxGenerator(converter.convert(), converter.getTables())
+            .renderDocument(template, output);
+        final PresentationMLPackage expected = PresentationMLPackage.load(
+            new File(
+                String.format("%scomplex_result_expected.pptx", PptxGeneratorTest.TESTS_PATH)
+            )
+        );
+        final List<SlidePart> expslides = expected.getMainPresentationPart().getSlideParts();
+        final List<SlidePart> actslides =
+            PresentationMLPackage.load(output).getMainPresentationPart().getSlideParts();
+        Assertions.assertEquals(expslides.size(), actslides.size());
+        for (int idx = 0; idx < expslides.size(); idx += 1) {
+            Assertions.assertEquals(
+                TestSlides.collectAllText(expslides.get(idx)),
+                TestSlides.collectAllText(actslides.get(idx))
+            );
+        }
+    }
+
+    /**
+     * Counts temporary files with pages of tables.
+     * @return The number of files
+     */
+    private static int countPageFiles() {
+        final File[] files = new File(System.getProperty("java.io.tmpdir")).listFiles(
+            (dir, name) -> name.startsWith("reportwine") && name.endsWith(".pages")
+        );
+        int result = 0;
+        if (files != null) {
+            result = files.length;
+        }
+        return result;
+    }
+
+    /**
+     * Loads the simple template.
+     * @return The template
+     * @throws Docx4JException If the template cannot be loaded
+     */
+    private static PresentationMLPackage loadSimpleTemplate() throws Docx4JException {
+        return PresentationMLPackage.load(
+            new File(String.format("%ssimple_template.pptx", PptxGeneratorTest.TESTS_PATH))
+        );
+    }
+
+    /**
+     * Replaces the text of the first paragraph of the first slide and saves the template.
+     * @param origin The loaded template
+     * @param text The new text of the paragraph
+     * @param source A temporary directory
+     * @return The saved template
+     * @throws Exception If the template cannot be changed or saved
+     */
+    private static File createTemplate(final PresentationMLPackage origin, final String text,
+        final Path source) throws Exception {
+        final SlidePart first = origin.getMainPresentationPart().getSlide(0);
+        final List<Object> runs = ((Shape) first.getJaxbElement().getCSld().getSpTree()
+            .getSpOrGrpSpOrGraphicFrame().get(0)).getTxBody().getP().get(0).getEGTextRun();
+        final CTRegularTextRun run = (CTRegularTextRun) runs.get(0);
+        run.setT(text);
+        runs.clear();
+        runs.add(run);
+        final File template = source.resolve("template.pptx").toFile();
+        Docx4J.save(origin, template);
+        return template;
+    }
+
+    /**
+     * Renders the template with the first slide repeated for the {@code teams} band
+     * with data converted from YAML.
+     * @param origin The loaded template
+     * @param source A temporary directory
+     * @param yaml The YAML data
+     * @return The slides of the rendered document
+     * @throws Exception If the document cannot be rendered
+     */
+    private static List<SlidePart> renderRepeatedSlide(final PresentationMLPackage origin,
+        final Path source, final String yaml) throws Exception {
+        final File template =
+            PptxGeneratorTest.createTemplate(origin, "##slides=teams ${name}", source);
+        final IrToDocx4jConverter converter = new IrToDocx4jConverter(
+            new YamlToIrConverter(Yaml.createYamlInput(yaml).readYamlMapping()).convert()
+        );
+        final File output = source.resolve("report.pptx").toFile();
+        new PptxGenerator(converter.convert(), converter.getTables())
+            .renderDocument(template, output);
+        return PresentationMLPackage.load(output).getMainPresentationPart().getSlideParts();
+    }
+
     /**
      * Collects relevant data from expected and actual files and checks if it is equal.
      * @param band Data bindings to be inserted into the template
      * @param prefix The prefix of the file name
      * @param source A temporary directory
+     * @param executor The executor to render slides in parallel or {@code null}
      */
-    private void checkContentEquality(
-        final BandData band, final String prefix, @TempDir final Path source) {
+    private void checkContentEquality(final BandData band, final String prefix,
+        @TempDir final Path source, final ExecutorService executor) {
         final YargToDocx4jConverter converter = new YargToDocx4jConverter(band);
         final PptxGenerator generator = new PptxGenerator(
-            converter.convert(), converter.getTables()
+            converter.convert(), new BandTables(converter.getTables()),
+            Compression.DEFAULT, executor
         );
         boolean caught = false;
         try {
@@ -106,68 +418,11 @@ class PptxGeneratorTest {
             caught = true;
         }
         Assertions.assertFalse(caught);
-        PresentationMLPackage expected = null;
-        PresentationMLPackage actual = null;
-        try {
-            expected = PresentationMLPackage.load(
-                new File(
-                    String.format(
-                        "%s%s_result_expected.pptx",
-                        PptxGeneratorTest.TESTS_PATH, prefix
-                    )
-                )
-            );
-            actual = PresentationMLPackage.load(
-                source.resolve("report.pptx").toFile()
-            );
-        } catch (final Docx4JException exception) {
-            caught = true;
-        }
-        Assertions.assertFalse(caught);
-        Assertions.assertNotNull(expected);
-        Assertions.assertNotNull(actual);
-        final StringBuilder exptext = new StringBuilder();
-        final StringBuilder acttext = new StringBuilder();
         try {
-            final List<SlidePart> expslides = expected.getMainPresentationPart().getSlideParts();
-            for (final SlidePart slide : expslides) {
-                exptext.append(this.collectAllText(slide));
-            }
-            final List<SlidePart> actlides = actual.getMainPresentationPart().getSlideParts();
-            for (final SlidePart slide : actlides) {
-                acttext.append(this.collectAllText(slide));
-            }
-        } catch (final Pptx4jException exception) {
-            caught = true;
-        }
-        Assertions.assertFalse(caught);
-        Assertions.assertEquals(exptext.toString(), acttext.toString());
-    }
-
-    /**
-     * Sequentially collects all values from text tags in the slide, deletes all spaces and
-     * concatenates them into a single string.
-     * @param part The slide part
-     * @return The result string
-     */
-    private String collectAllText(final SlidePart part) {
-        final StringBuilder builder = new StringBuilder();
-        final String xpath = "//a:r";
-        boolean caught = false;
-        try {
-            final List<Object> list = part.getJAXBNodesViaXPath(xpath, false);
-            for (final Object node : list) {
-                if (node instanceof CTRegularTextRun) {
-                    final String value = ((CTRegularTextRun) node).getT();
-                    if (value != null) {
-                        builder.append(value.replaceAll("\\s", ""));
-                    }
-                }
-            }
-        } catch (final JAXBException | XPathBinderAssociationIsPartialException exception) {
+            TestSlides.checkContentEquality(prefix, source.resolve("report.pptx").toFile());
+        } catch (final Docx4JException | Pptx4jException exception) {
             caught = true;
         }
         Assertions.assertFalse(caught);
-        return builder.toString();
     }
 }
@@ -0,0 +1,286 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.reportwine.generators;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+import javax.xml.bind.JAXBException;
+import org.docx4j.dml.CTRegularTextRun;
+import org.docx4j.dml.CTTable;
+import org.docx4j.dml.CTTableCell;
+import org.docx4j.dml.CTTableRow;
+import org.docx4j.dml.CTTextBody;
+import org.docx4j.dml.CTTextParagraph;
+import org.docx4j.dml.ObjectFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link RowTemplate} class.
+ *
+ * @since 0.1
+ */
+class RowTemplateTest {
+    /**
+     * The factory of DrawingML objects.
+     */
+    private static final ObjectFactory FACTORY = new ObjectFactory();
+
+    /**
+     * Test that rows stamped from the template are independent copies filled with data.
+     */
+    @Test
+    void testStampedRows() throws JAXBException {
+        final CTTableRow row = RowTemplateTest.FACTORY.createCTTableRow();
+        row.getTc().add(RowTemplateTest.createCell("${name}"));
+        row.getTc().add(RowTemplateTest.createCell("Constant"));
+        row.getTc().add(RowTemplateTest.createCell("${role}"));
+        final RowTemplate template = new RowTemplate(row);
+        Assertions.assertArrayEquals(new String[] {"name", "role"}, template.getFields());
+        final CTTableRow one = template.stamp("First Person", "Project manager");
+        final CTTableRow two = template.stamp("Second Person", null);
+        Assertions.assertNotSame(one, two);
+        Assertions.assertEquals("First Person", RowTemplateTest.getText(one, 0));
+        Assertions.assertEquals("Constant", RowTemplateTest.getText(one, 1));
+        Assertions.assertEquals("Project manager", RowTemplateTest.getText(one, 2));
+        Assertions.assertEquals("Second Person", RowTemplateTest.getText(two, 0));
+        Assertions.assertEquals("${role}", RowTemplateTest.getText(two, 2));
+        Assertions.assertEquals("${name}", RowTemplateTest.getText(row, 0));
+    }
+
+    /**
+     * Test that the row with placeholders is replaced with data rows in its place.
+     */
+    @Test
+    void testTableFilledInPlace() throws JAXBException {
+        final CTTable table = RowTemplateTest.createTable(3);
+        final CTTableRow row = table.getTr().get(1);
+        final int count = new RowTemplate(row).fill(table, RowTemplateTest.createData(2));
+        Assertions.assertEquals(2, count);
+        Assertions.assertEquals(4, table.getTr().size());
+        Assertions.assertEquals("Name", RowTemplateTest.getText(table.getTr().get(0), 0));
+        Assertions.assertEquals("Person 0", RowTemplateTest.getText(table.getTr().get(1), 0));
+        Assertions.assertEquals("Person 1", RowTemplateTest.getText(table.getTr().get(2), 0));
+        Assertions.assertEquals("Total", RowTemplateTest.getText(table.getTr().get(3), 0));
+        final CTTable empty = RowTemplateTest.createTable(3);
+        Assertions.assertEquals(
+            0, new RowTemplate(empty.getTr().get(1)).fill(empty, new ArrayList<>())
+        );
+        Assertions.assertEquals(3, empty.getTr().size());
+        Assertions.assertEquals("${name}", RowTemplateTest.getText(empty.getTr().get(1), 0));
+    }
+
+    /**
+     * Test that filling a table changes its list of rows the same number of times
+     * whatever the number of rows, and reads the data once. Rows inserted one by one
+     * would shift the rest of the list each time, so filling would take quadratic time.
+     */
+    @Test
+    void testRowsInsertedAtOnce() throws JAXBException {
+        final int few = RowTemplateTest.countChanges(10);
+        final int many = RowTemplateTest.countChanges(1000);
+        Assertions.assertEquals(few, many);
+        Assertions.assertTrue(many <= 2);
+    }
+
+    /**
+     * Fills a table with the specified number of rows and counts changes
+     * of the list of rows.
+     * @param size The number of rows
+     * @return The number of changes of the list of rows
+     * @throws JAXBException If a row cannot be unmarshalled
+     */
+    private static int countChanges(final int size) throws JAXBException {
+        final CountingRows rows = new CountingRows();
+        final CTTable table = new CTTable() {
+            @Override
+            public List<CTTableRow> getTr() {
+                return rows;
+            }
+        };
+        rows.addAll(RowTemplateTest.createTable(3).getTr());
+        final int[] passes = new int[1];
+        final Iterable<String[]> data = RowTemplateTest.createData(size);
+        final Iterable<String[]> counted = () -> {
+            passes[0] += 1;
+            return data.iterator();
+        };
+        final CTTableRow total = rows.get(2);
+        rows.reset();
+        new RowTemplate(rows.get(1)).fill(table, counted);
+        Assertions.assertEquals(1, passes[0]);
+        Assertions.assertEquals(size + 2, rows.size());
+        Assertions.assertSame(total, rows.get(size + 1));
+        return rows.getChanges();
+    }
+
+    /**
+     * Creates a table with a header row, a row with placeholders and,
+     * optionally, a total row.
+     * @param height The number of rows, 2 or 3
+     * @return The table
+     */
+    private static CTTable createTable(final int height) {
+        final CTTable table = RowTemplateTest.FACTORY.createCTTable();
+        final CTTableRow head = RowTemplateTest.FACTORY.createCTTableRow();
+        head.getTc().add(RowTemplateTest.createCell("Name"));
+        table.getTr().add(head);
+        final CTTableRow row = RowTemplateTest.FACTORY.createCTTableRow();
+        row.getTc().add(RowTemplateTest.createCell("${name}"));
+        table.getTr().add(row);
+        if (height > 2) {
+            final CTTableRow total = RowTemplateTest.FACTORY.createCTTableRow();
+            total.getTc().add(RowTemplateTest.createCell("Total"));
+            table.getTr().add(total);
+        }
+        return table;
+    }
+
+    /**
+     * Creates rows of data produced lazily.
+     * @param size The number of rows
+     * @return The rows
+     */
+    private static Iterable<String[]> createData(final int size) {
+        return () -> IntStream.range(0, size).mapToObj(
+            idx -> new String[] {String.format("Person %d", idx)}
+        ).iterator();
+    }
+
+    /**
+     * Creates a table cell with one text run.
+     * @param text The text of the cell
+     * @return The cell
+     */
+    private static CTTableCell createCell(final String text) {
+        final CTRegularTextRun run = RowTemplateTest.FACTORY.createCTRegularTextRun();
+        run.setT(text);
+        final CTTextParagraph paragraph = RowTemplateTest.FACTORY.createCTTextParagraph();
+        paragraph.getEGTextRun().add(run);
+        final CTTextBody body = RowTemplateTest.FACTORY.createCTTextBody();
+        body.getP().add(paragraph);
+        final CTTableCell cell = RowTemplateTest.FACTORY.createCTTableCell();
+        cell.setTxBody(body);
+        return cell;
+    }
+
+    /**
+     * Returns the text of the first run of the cell.
+     * @param row The row
+     * @param index The index of the cell
+     * @return The text
+     */
+    private static String getText(final CTTableRow row, final int index) {
+        return ((CTRegularTextRun) row.getTc().get(index).getTxBody().getP().get(0)
+            .getEGTextRun().get(0)).getT();
+    }
+
+    /**
+     * List of rows that counts its changes.
+     *
+     * @since 0.1
+     */
+    private static final class CountingRows extends ArrayList<CTTableRow> {
+        /**
+         * The serial version.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The number of changes.
+         */
+        private int changes;
+
+        /**
+         * Returns the number of changes since the last reset.
+         * @return The number of changes
+         */
+        int getChanges() {
+            return this.changes;
+        }
+
+        /**
+         * Resets the number of changes.
+         */
+        void reset() {
+            this.changes = 0;
+        }
+
+        @Override
+        public boolean add(final CTTableRow row) {
+            this.changes += 1;
+            return super.add(row);
+        }
+
+        @Override
+        public void add(final int index, final CTTableRow row) {
+            this.changes += 1;
+            super.add(index, row);
+        }
+
+        @Override
+        public boolean addAll(final Collection<? extends CTTableRow> rows) {
+            this.changes += 1;
+            return super.addAll(rows);
+        }
+
+        @Override
+        public boolean addAll(final int index, final Collection<? extends CTTableRow> rows) {
+            this.changes += 1;
+            return super.addAll(index, rows);
+        }
+
+        @Override
+        public CTTableRow set(final int index, final CTTableRow row) {
+            this.changes += 1;
+            return super.set(index, row);
+        }
+
+        @Override
+        public CTTableRow remove(final int index) {
+            this.changes += 1;
+            return super.remove(index);
+        }
+
+        @Override
+        public boolean remove(final Object row) {
+            this.changes += 1;
+            return super.remove(row);
+        }
+
+        @Override
+        public void clear() {
+            this.changes += 1;
+            super.clear();
+        }
+
+        @Override
+        protected void removeRange(final int from, final int to) {
+            this.changes += 1;
+            super.removeRange(from, to);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.reportwine.generators;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.packages.PresentationMLPackage;
+import org.docx4j.openpackaging.parts.PresentationML.SlidePart;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pptx4j.Pptx4jException;
+
+/**
+ * Test for {@link SlideFilter} class.
+ *
+ * @since 0.1
+ */
+class SlideFilterTest {
+    /**
+     * The folder with test resources.
+     */
+    private static final String TESTS_PATH = "src/test/sample/";
+
+    /**
+     * Test that slides with variables are selected for rendering.
+     */
+    @Test
+    void testTemplateSlidesAreCandidates() throws Docx4JException, Pptx4jException {
+        final PresentationMLPackage pptx = PresentationMLPackage.load(
+            new File(SlideFilterTest.TESTS_PATH.concat("complex_template.pptx"))
+        );
+        for (final SlidePart slide : pptx.getMainPresentationPart().getSlideParts()) {
+            Assertions.assertTrue(SlideFilter.isCandidate(slide));
+        }
+    }
+
+    /**
+     * Test that slides without variables are skipped during rendering and
+     * are not unmarshalled.
+     * @param dir The temporary directory
+     */
+    @Test
+    void testSlidesWithoutVariablesAreSkipped(@TempDir final Path dir)
+        throws Docx4JException, Pptx4jException {
+        final File template =
+            new File(SlideFilterTest.TESTS_PATH.concat("complex_result_expected.pptx"));
+        final PresentationMLPackage pptx = PresentationMLPackage.load(template);
+        new PptxGenerator(
+            Collections.emptyMap(), new BandTables(Collections.emptyMap())
+        ).renderDocument(pptx, template, dir.resolve("result.pptx").toFile());
+        for (final SlidePart slide : pptx.getMainPresentationPart().getSlideParts()) {
+            Assertions.assertFalse(SlideFilter.isCandidate(slide));
+            Assertions.assertFalse(slide.isUnmarshalled());
+        }
+    }
+
+    /**
+     * Test that the marker of a repeated slide is found in the text of the XML
+     * even if it is split between text runs, and is not found in tags.
+     */
+    @Test
+    void testMarkerOfRepeatedSlide() throws IOException {
+        Assertions.assertTrue(
+            SlideFilterTest.hasMarker("<a:r><a:t>##sli</a:t></a:r><a:r><a:t>des=teams</a:t>")
+        );
+        Assertions.assertTrue(SlideFilterTest.hasMarker("<a:t>Title ###slides=teams</a:t>"));
+        Assertions.assertFalse(SlideFilterTest.hasMarker("<a:t>##band=teams</a:t>"));
+        Assertions.assertFalse(SlideFilterTest.hasMarker("<a:t>#slides=teams</a:t>"));
+        Assertions.assertFalse(SlideFilterTest.hasMarker("<a:t ##slides=\"\">Title</a:t>"));
+    }
+
+    /**
+     * Test that slides of the template without the marker are not considered
+     * as repeated ones, so they are not unmarshalled to find it.
+     */
+    @Test
+    void testSlidesWithoutMarkerAreNotRepeated() throws Docx4JException, Pptx4jException {
+        final PresentationMLPackage pptx = PresentationMLPackage.load(
+            new File(SlideFilterTest.TESTS_PATH.concat("complex_template.pptx"))
+        );
+        for (final SlidePart slide : pptx.getMainPresentationPart().getSlideParts()) {
+            Assertions.assertFalse(SlideFilter.isRepeated(slide));
+        }
+    }
+
+    /**
+     * Checks if the XML contains the marker of a repeated slide.
+     * @param xml The XML
+     * @return Checking result
+     * @throws IOException If an error during reading occurs
+     */
+    private static boolean hasMarker(final String xml) throws IOException {
+        return SlideFilter.hasText(
+            new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), SlideRepeater.MARKER
+        );
+    }
+}
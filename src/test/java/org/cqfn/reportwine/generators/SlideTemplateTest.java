@@ -0,0 +1,115 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.generators;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link SlideTemplate} class.
+ *
+ * @since 0.1
+ */
+class SlideTemplateTest {
+    /**
+     * Test rendering of paragraphs by compiled placeholders.
+     */
+    @Test
+    void testRenderParagraphs() {
+        final Map<String, String> mappings = new HashMap<>();
+        mappings.put("name", "MyProject");
+        mappings.put("year", "2022");
+        final SlideTemplate template = new SlideTemplate(
+            Arrays.asList("${name} (${year})", "${unknown} only", "${name}, ${unknown}")
+        );
+        Assertions.assertEquals(3, template.size());
+        final String[] values = template.resolve(mappings, null);
+        Assertions.assertEquals(3, values.length);
+        Assertions.assertEquals("MyProject (2022)", template.render(0, values));
+        Assertions.assertNull(template.render(1, values));
+        Assertions.assertEquals("MyProject, ${unknown}", template.render(2, values));
+    }
+
+    /**
+     * Test that variables of the item of a band take precedence over the common ones
+     * and that the same template is rendered with values of different items.
+     */
+    @Test
+    void testLocalVariables() {
+        final Map<String, String> common = new HashMap<>();
+        common.put("name", "MyProject");
+        common.put("title", "Team");
+        final SlideTemplate template =
+            new SlideTemplate(Collections.singletonList("${title}: ${name}"));
+        Assertions.assertEquals(
+            "Team: Ivan",
+            template.render(
+                0, template.resolve(common, Collections.singletonMap("name", "Ivan"))
+            )
+        );
+        Assertions.assertEquals(
+            "Team: Polina",
+            template.render(
+                0, template.resolve(common, Collections.singletonMap("name", "Polina"))
+            )
+        );
+        Assertions.assertEquals(
+            "Team: MyProject", template.render(0, template.resolve(common, null))
+        );
+    }
+
+    /**
+     * Test that the text around placeholders, including unclosed ones, is kept.
+     */
+    @Test
+    void testLiteralParts() {
+        final SlideTemplate template =
+            new SlideTemplate(Collections.singletonList("a ${b ${c} d ${c}}"));
+        final String[] values =
+            template.resolve(Collections.singletonMap("c", "C"), null);
+        Assertions.assertEquals(1, values.length);
+        Assertions.assertEquals("a ${b C d C}", template.render(0, values));
+    }
+
+    /**
+     * Test substitution of known variables in the text without compiling it.
+     */
+    @Test
+    void testSubstitute() {
+        final Map<String, String> mappings = new HashMap<>();
+        mappings.put("name", "MyProject");
+        mappings.put("year", "2022");
+        Assertions.assertEquals(
+            "MyProject (2022), ${unknown}",
+            SlideTemplate.substitute(mappings, "${name} (${year}), ${unknown}")
+        );
+        Assertions.assertNull(SlideTemplate.substitute(mappings, "${unknown} only"));
+        Assertions.assertNull(SlideTemplate.substitute(mappings, "No variables"));
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.reportwine.generators;
+
+import com.haulmont.yarg.structure.BandData;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.cqfn.reportwine.converters.YargToDocx4jConverter;
+import org.cqfn.reportwine.utils.Compression;
+import org.docx4j.Docx4J;
+import org.docx4j.XmlUtils;
+import org.docx4j.dml.CTRegularTextRun;
+import org.docx4j.dml.CTTable;
+import org.docx4j.dml.CTTableRow;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.packages.PresentationMLPackage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pptx4j.Pptx4jException;
+
+/**
+ * Test for {@link StreamingPptxGenerator} class.
+ *
+ * @since 0.1
+ */
+class StreamingPptxGeneratorTest {
+    /**
+     * The folder with test resources.
+     */
+    private static final String TESTS_PATH = "src/test/sample/";
+
+    /**
+     * Examples of data bindings for testing.
+     */
+    private final TestBandData data = new TestBandData();
+
+    /**
+     * Test streaming generation of pptx report on simple text replacements.
+     * @param source A temporary directory
+     * @throws Exception If the report cannot be generated or loaded
+     */
+    @Test
+    void testSimplePptxReportGeneration(@TempDir final Path source) throws Exception {
+        this.checkContentEquality(this.data.simpleExample(), "simple", source, Compression.DEFAULT);
+    }
+
+    /**
+     * Test streaming generation of pptx report on complex replacements.
+     * @param source A temporary directory
+     * @throws Exception If the report cannot be generated or loaded
+     */
+    @Test
+    void testComplexPptxReportGeneration(@TempDir final Path source) throws Exception {
+        this.checkContentEquality(
+            this.data.complexExample(), "complex", source, Compression.DEFAULT
+        );
+    }
+
+    /**
+     * Test streaming generation of pptx report with uncompressed slides.
+     * @param source A temporary directory
+     * @throws Exception If the report cannot be generated or loaded
+     */
+    @Test
+    void testStoredSlides(@TempDir final Path source) throws Exception {
+        this.checkContentEquality(
+            this.data.complexExample(), "complex", source, Compression.STORED
+        );
+    }
+
+    /**
+     * Test that the row of the table with variables is expanded into many rows,
+     * and the rows after it, like totals, are kept after the expanded rows.
+     * @param source A temporary directory
+     * @throws Exception If the report cannot be generated or loaded
+     */
+    @Test
+    void testManyRowsBeforeTotal(@TempDir final Path source) throws Exception {
+        final PresentationMLPackage origin = PresentationMLPackage.load(
+            new File(
+                String.format("%scomplex_template.pptx", StreamingPptxGeneratorTest.TESTS_PATH)
+            )
+        );
+        final CTTable table = TestSlides.getTables(
+            origin.getMainPresentationPart().getSlide(2)
+        ).get(0);
+        final CTTableRow total = XmlUtils.deepCopy(table.getTr().get(1));
+        final String[] totals = {"Total", "150", "All"};
+        for (int idx = 0; idx < totals.length; idx += 1) {
+            ((CTRegularTextRun) total.getTc().get(idx).getTxBody().getP().get(0)
+                .getEGTextRun().get(0)).setT(totals[idx]);
+        }
+        table.getTr().add(total);
+        final File template = source.resolve("template.pptx").toFile();
+        Docx4J.save(origin, template);
+        final int count = 150;
+        final BandData root = new BandData("project");
+        final List<BandData> milestones = new ArrayList<>(count);
+        for (int idx = 0; idx < count; idx += 1) {
+            final BandData milestone = new BandData("milestones", root);
+            milestone.addData("description", String.format("Stage %d", idx));
+            milestone.addData("duration", "1");
+            milestone.addData("objectives", String.format("Objective %d", idx));
+            milestones.add(milestone);
+        }
+        final Map<String, List<BandData>> tables = new HashMap<>();
+        tables.put("milestones", milestones);
+        final File output = source.resolve("report.pptx").toFile();
+        new StreamingPptxGenerator(
+            Collections.emptyMap(), new BandTables(tables), Compression.DEFAULT
+        ).renderDocument(template, output);
+        final List<CTTableRow> rows = TestSlides.getTables(
+            PresentationMLPackage.load(output).getMainPresentationPart().getSlide(2)
+        ).get(0).getTr();
+        Assertions.assertEquals(count + 2, rows.size());
+        for (int idx = 0; idx < count; idx += 1) {
+            Assertions.assertEquals(
+                String.format("Stage %d", idx),
+                StreamingPptxGeneratorTest.getText(rows.get(idx + 1), 0)
+            );
+            Assertions.assertEquals(
+                String.format("Objective %d", idx),
+                StreamingPptxGeneratorTest.getText(rows.get(idx + 1), 2)
+            );
+        }
+        for (int idx = 0; idx < totals.length; idx += 1) {
+            Assertions.assertEquals(
+                totals[idx], StreamingPptxGeneratorTest.getText(rows.get(count + 1), idx)
+            );
+        }
+    }
+
+    /**
+     * Renders the template and checks if texts of the result and the expected
+     * document are equal.
+     * @param band Data bindings to be inserted into the template
+     * @param prefix The prefix of the file name
+     * @param source A temporary directory
+     * @param compression The compression of rendered slides
+     * @throws IOException If the report cannot be generated
+     * @throws Docx4JException If a document cannot be loaded
+     * @throws Pptx4jException If slides cannot be loaded
+     */
+    private void checkContentEquality(final BandData band, final String prefix,
+        final Path source, final Compression compression)
+        throws IOException, Docx4JException, Pptx4jException {
+        final YargToDocx4jConverter converter = new YargToDocx4jConverter(band);
+        final File output = source.resolve("report.pptx").toFile();
+        new StreamingPptxGenerator(
+            converter.convert(), new BandTables(converter.getTables()), compression
+        ).renderDocument(
+            new File(
+                String.format("%s%s_template.pptx", StreamingPptxGeneratorTest.TESTS_PATH, prefix)
+            ),
+            output
+        );
+        TestSlides.checkContentEquality(prefix, output);
+    }
+
+    /**
+     * Returns the text of the first run of the cell of the row.
+     * @param row The row
+     * @param cell The index of the cell
+     * @return The text
+     */
+    private static String getText(final CTTableRow row, final int cell) {
+        return ((CTRegularTextRun) row.getTc().get(cell).getTxBody().getP().get(0)
+            .getEGTextRun().get(0)).getT();
+    }
+}
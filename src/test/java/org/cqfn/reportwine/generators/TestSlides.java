@@ -0,0 +1,145 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.generators;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.bind.JAXBException;
+import org.docx4j.XmlUtils;
+import org.docx4j.dml.CTRegularTextRun;
+import org.docx4j.dml.CTTable;
+import org.docx4j.jaxb.XPathBinderAssociationIsPartialException;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.packages.PresentationMLPackage;
+import org.docx4j.openpackaging.parts.PresentationML.SlidePart;
+import org.junit.jupiter.api.Assertions;
+import org.pptx4j.Pptx4jException;
+
+/**
+ * Texts of slides of generated presentations for testing.
+ *
+ * @since 0.1
+ */
+public final class TestSlides {
+    /**
+     * The folder with test resources.
+     */
+    public static final String TESTS_PATH = "src/test/sample/";
+
+    /**
+     * Constructor.
+     */
+    private TestSlides() {
+    }
+
+    /**
+     * Checks if texts of the generated document and the expected one are equal.
+     * @param prefix The prefix of the name of the expected document
+     * @param output The generated document
+     * @throws Docx4JException If a document cannot be loaded
+     * @throws Pptx4jException If slides cannot be loaded
+     */
+    public static void checkContentEquality(final String prefix, final File output)
+        throws Docx4JException, Pptx4jException {
+        final PresentationMLPackage expected = PresentationMLPackage.load(
+            new File(String.format("%s%s_result_expected.pptx", TestSlides.TESTS_PATH, prefix))
+        );
+        final PresentationMLPackage actual = PresentationMLPackage.load(output);
+        Assertions.assertEquals(
+            TestSlides.collectAllText(expected),
+            TestSlides.collectAllText(actual)
+        );
+    }
+
+    /**
+     * Sequentially collects all values from text tags in slides of the document,
+     * deletes all spaces and concatenates them into a single string.
+     * @param pptx The document
+     * @return The result string
+     * @throws Pptx4jException If slides cannot be loaded
+     */
+    public static String collectAllText(final PresentationMLPackage pptx)
+        throws Pptx4jException {
+        final StringBuilder builder = new StringBuilder();
+        for (final SlidePart slide : pptx.getMainPresentationPart().getSlideParts()) {
+            builder.append(TestSlides.collectAllText(slide));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Sequentially collects all values from text tags in the slide, deletes all spaces and
+     * concatenates them into a single string.
+     * @param part The slide part
+     * @return The result string
+     */
+    public static String collectAllText(final SlidePart part) {
+        final StringBuilder builder = new StringBuilder();
+        for (final Object node : TestSlides.find(part, "//a:r")) {
+            if (node instanceof CTRegularTextRun) {
+                final String value = ((CTRegularTextRun) node).getT();
+                if (value != null) {
+                    builder.append(value.replaceAll("\\s", ""));
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns the tables of the slide.
+     * @param part The slide part
+     * @return The tables in the order of the slide
+     */
+    public static List<CTTable> getTables(final SlidePart part) {
+        final List<CTTable> tables = new ArrayList<>(1);
+        for (final Object node : TestSlides.find(part, "//a:tbl")) {
+            final Object table = XmlUtils.unwrap(node);
+            if (table instanceof CTTable) {
+                tables.add((CTTable) table);
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Finds nodes of the slide.
+     * @param part The slide part
+     * @param xpath The XPath of nodes
+     * @return The nodes
+     */
+    private static List<Object> find(final SlidePart part, final String xpath) {
+        List<Object> result = new ArrayList<>(0);
+        boolean caught = false;
+        try {
+            result = part.getJAXBNodesViaXPath(xpath, false);
+        } catch (final JAXBException | XPathBinderAssociationIsPartialException exception) {
+            caught = true;
+        }
+        Assertions.assertFalse(caught);
+        return result;
+    }
+}
@@ -208,4 +208,70 @@ class IrMergerTest {
         Assertions.assertTrue(six instanceof Text);
         Assertions.assertEquals("66", ((Text) six).getValue());
     }
+
+    /**
+     * Test that merging of several structures in one pass gives the same result
+     * as pairwise merging.
+     */
+    @Test
+    void mergeSeveralStructuresInOnePass() {
+        final Pair project = new Pair(
+            "report",
+            new Array(
+                Arrays.asList(
+                    new Pair("name", new Text("Project")),
+                    new Pair("dates", new Pair("start", new Text("2021"))),
+                    new Pair("goals", new Array(Collections.singletonList(new Text("one"))))
+                )
+            )
+        );
+        final Pair defaults = new Pair(
+            "report",
+            new Array(
+                Arrays.asList(
+                    new Pair(
+                        "dates",
+                        new Array(Collections.singletonList(new Pair("end", new Text("2022"))))
+                    ),
+                    new Pair("team", new Text("Default"))
+                )
+            )
+        );
+        final Pair quarter = new Pair(
+            "report",
+            new Array(
+                Arrays.asList(
+                    new Pair("dates", new Pair("end", new Text("2023"))),
+                    new Pair("goals", new Array(Collections.singletonList(new Text("two"))))
+                )
+            )
+        );
+        final Pair config = new Pair("report", new Pair("team", new Text("Final")));
+        final IrMerger merger = new IrMerger();
+        final Pair pairwise = merger.merge(
+            merger.merge(merger.merge(project, defaults), quarter), config
+        );
+        final Pair result = merger.merge(Arrays.asList(project, defaults, quarter, config));
+        Assertions.assertEquals(pairwise, result);
+        final Pair expected = new Pair(
+            "report",
+            new Array(
+                Arrays.asList(
+                    new Pair("name", new Text("Project")),
+                    new Pair(
+                        "dates",
+                        new Array(
+                            Arrays.asList(
+                                new Pair("start", new Text("2021")),
+                                new Pair("end", new Text("2023"))
+                            )
+                        )
+                    ),
+                    new Pair("goals", new Array(Collections.singletonList(new Text("two")))),
+                    new Pair("team", new Text("Final"))
+                )
+            )
+        );
+        Assertions.assertEquals(expected, result);
+    }
 }
@@ -0,0 +1,121 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.utils;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import org.docx4j.openpackaging.exceptions.InvalidFormatException;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPart;
+import org.docx4j.wml.ObjectFactory;
+import org.docx4j.wml.P;
+import org.docx4j.wml.PPr;
+import org.docx4j.wml.PPrBase;
+import org.docx4j.wml.Style;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link DocxTemplate} class.
+ *
+ * @since 0.1
+ */
+class DocxTemplateTest {
+    /**
+     * The factory of WordprocessingML objects.
+     */
+    private static final ObjectFactory FACTORY = new ObjectFactory();
+
+    /**
+     * Test that headings are found by their styles and
+     * the template without the Table of Contents is recognized.
+     */
+    @Test
+    void testHeadingsWithoutToc() throws InvalidFormatException {
+        final WordprocessingMLPackage document = WordprocessingMLPackage.createPackage();
+        final MainDocumentPart part = document.getMainDocumentPart();
+        part.addStyledParagraphOfText("Heading1", "${project.name}");
+        part.addParagraphOfText("${project.about}");
+        part.addStyledParagraphOfText("Heading2", "Goals");
+        final DocxTemplate template = new DocxTemplate(document);
+        Assertions.assertFalse(template.hasToc());
+        Assertions.assertEquals(
+            Arrays.asList("${project.name}", "Goals"),
+            template.getHeadings()
+        );
+    }
+
+    /**
+     * Test that headings are found by styles that inherit the outline level
+     * from the styles they are based on.
+     */
+    @Test
+    void testHeadingsOfInheritedStyles() throws InvalidFormatException {
+        final WordprocessingMLPackage document = WordprocessingMLPackage.createPackage();
+        final MainDocumentPart part = document.getMainDocumentPart();
+        part.addStyledParagraphOfText("Heading1", "Introduction");
+        final List<Style> styles = part.getStyleDefinitionsPart().getJaxbElement().getStyle();
+        styles.add(DocxTemplateTest.createStyle("Chapter", "Heading1"));
+        styles.add(DocxTemplateTest.createStyle("Section", "Chapter"));
+        final Style plain = DocxTemplateTest.createStyle("Plain", "Chapter");
+        final PPr properties = DocxTemplateTest.FACTORY.createPPr();
+        final PPrBase.OutlineLvl level = DocxTemplateTest.FACTORY.createPPrBaseOutlineLvl();
+        level.setVal(BigInteger.valueOf(9));
+        properties.setOutlineLvl(level);
+        plain.setPPr(properties);
+        styles.add(plain);
+        for (final String[] item
+            : new String[][] {{"Chapter", "Goals"}, {"Section", "Tasks"}, {"Plain", "Notes"}}) {
+            final P paragraph = part.createParagraphOfText(item[1]);
+            final PPr style = DocxTemplateTest.FACTORY.createPPr();
+            final PPrBase.PStyle id = DocxTemplateTest.FACTORY.createPPrBasePStyle();
+            id.setVal(item[0]);
+            style.setPStyle(id);
+            paragraph.setPPr(style);
+            part.getContent().add(paragraph);
+        }
+        Assertions.assertEquals(
+            Arrays.asList("Introduction", "Goals", "Tasks"),
+            new DocxTemplate(document).getHeadings()
+        );
+    }
+
+    /**
+     * Creates a paragraph style based on another style.
+     * @param name The identifier of the style
+     * @param base The identifier of the base style
+     * @return The style
+     */
+    private static Style createStyle(final String name, final String base) {
+        final Style style = DocxTemplateTest.FACTORY.createStyle();
+        style.setType("paragraph");
+        style.setStyleId(name);
+        final Style.BasedOn based = DocxTemplateTest.FACTORY.createStyleBasedOn();
+        based.setVal(base);
+        style.setBasedOn(based);
+        return style;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import org.cqfn.reportwine.exceptions.BaseException;
+import org.cqfn.reportwine.model.Pair;
+import org.cqfn.reportwine.model.Text;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link IrCache} class.
+ *
+ * @since 0.1
+ */
+class IrCacheTest {
+    /**
+     * Test that an unchanged file is parsed only once.
+     * @param dir The temporary directory
+     */
+    @Test
+    void testUnchangedFileFromMemory(@TempDir final Path dir)
+        throws IOException, BaseException {
+        final Path file = dir.resolve("project.yml");
+        Files.write(file, Arrays.asList("project:", "  name: First"));
+        final IrCache cache = new IrCache(2);
+        final ParsedFile first = cache.load(file.toFile());
+        final ParsedFile second = cache.load(file.toFile());
+        Assertions.assertSame(first, second);
+    }
+
+    /**
+     * Test that a changed file is parsed again.
+     * @param dir The temporary directory
+     */
+    @Test
+    void testChangedFileParsedAgain(@TempDir final Path dir)
+        throws IOException, BaseException {
+        final Path file = dir.resolve("project.yml");
+        Files.write(file, Arrays.asList("project:", "  name: First"));
+        final IrCache cache = new IrCache(2, null, true);
+        final Pair first = cache.load(file.toFile()).getContent();
+        Files.write(file, Arrays.asList("project:", "  name: Second"));
+        final Pair second = cache.load(file.toFile()).getContent();
+        Assertions.assertNotEquals(first, second);
+        Assertions.assertEquals(new Text("Second"), ((Pair) second.getValue()).getValue());
+    }
+
+    /**
+     * Test that a parsed file is restored from the disk cache by another cache instance.
+     * @param dir The temporary directory
+     */
+    @Test
+    void testFileFromDisk(@TempDir final Path dir)
+        throws IOException, BaseException {
+        final Path file = dir.resolve("project.yml");
+        Files.write(file, Arrays.asList("project:", "  name: First", "  stage: 2"));
+        final Path storage = dir.resolve("cache");
+        final Pair first = new IrCache(1, storage.toFile(), false)
+            .load(file.toFile())
+            .getContent();
+        try (Stream<Path> files = Files.list(storage)) {
+            Assertions.assertEquals(1L, files.count());
+        }
+        final Pair second = new IrCache(1, storage.toFile(), false)
+            .load(file.toFile())
+            .getContent();
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals(first, second);
+    }
+
+    /**
+     * Test that code snippets and nested arrays are restored from the disk cache as they were.
+     * @param dir The temporary directory
+     */
+    @Test
+    void testCodeAndArraysFromDisk(@TempDir final Path dir)
+        throws IOException, BaseException {
+        final Path file = dir.resolve("project.yml");
+        Files.write(
+            file,
+            Arrays.asList(
+                "project:",
+                "  stage: $ return 1;",
+                "  steps:",
+                "    - first",
+                "    - second",
+                "  people:",
+                "    - name: Alice",
+                "      role: lead",
+                "    - name: Bob"
+            )
+        );
+        final Path storage = dir.resolve("cache");
+        final Pair first = new IrCache(1, storage.toFile(), false)
+            .load(file.toFile())
+            .getContent();
+        final Pair second = new IrCache(1, storage.toFile(), false)
+            .load(file.toFile())
+            .getContent();
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals(first, second);
+    }
+
+    /**
+     * Test that a damaged file of the disk cache is not trusted and the input is parsed again.
+     * @param dir The temporary directory
+     */
+    @Test
+    void testDamagedFileOnDisk(@TempDir final Path dir)
+        throws IOException, BaseException {
+        final Path file = dir.resolve("project.yml");
+        Files.write(file, Arrays.asList("project:", "  name: First"));
+        final Path storage = dir.resolve("cache");
+        final Pair first = new IrCache(1, storage.toFile(), false)
+            .load(file.toFile())
+            .getContent();
+        final Path stored;
+        try (Stream<Path> files = Files.list(storage)) {
+            stored = files.findFirst().get();
+        }
+        Files.write(stored, new byte[] {(byte) 0xAC, (byte) 0xED, 0, 5});
+        final Pair second = new IrCache(1, storage.toFile(), false)
+            .load(file.toFile())
+            .getContent();
+        Assertions.assertEquals(first, second);
+        Files.write(stored, Arrays.asList("{\"content\": {\"unknown\": 1}, \"includes\": []}"));
+        final Pair third = new IrCache(1, storage.toFile(), false)
+            .load(file.toFile())
+            .getContent();
+        Assertions.assertEquals(first, third);
+    }
+}
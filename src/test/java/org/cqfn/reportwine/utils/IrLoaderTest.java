@@ -0,0 +1,178 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import org.cqfn.reportwine.exceptions.BaseException;
+import org.cqfn.reportwine.exceptions.CyclicInclude;
+import org.cqfn.reportwine.model.Array;
+import org.cqfn.reportwine.model.Pair;
+import org.cqfn.reportwine.model.Text;
+import org.cqfn.reportwine.model.Value;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link IrLoader} class.
+ *
+ * @since 0.1
+ */
+class IrLoaderTest {
+    /**
+     * The number of sibling included files loaded in parallel.
+     */
+    private static final int SIBLINGS = 32;
+
+    /**
+     * The number of attempts to load files with a failing include.
+     */
+    private static final int RUNS = 20;
+
+    /**
+     * Test merging of included files matched by a glob pattern and the including file.
+     * @param dir The temporary directory
+     */
+    @Test
+    void testIncludeByGlob(@TempDir final Path dir) throws IOException, BaseException {
+        Files.createDirectories(dir.resolve("teams"));
+        Files.write(
+            dir.resolve("teams/b.yml"),
+            Arrays.asList("project:", "  second: B", "  name: Second")
+        );
+        Files.write(
+            dir.resolve("teams/a.yml"),
+            Arrays.asList("project:", "  first: A", "  name: First")
+        );
+        Files.write(
+            dir.resolve("project.yml"),
+            Arrays.asList("include: teams/*.yml", "project:", "  stage: 2", "  name: Main")
+        );
+        final Pair result = new IrLoader(new IrCache(4)).load(dir.resolve("project.yml").toFile());
+        Assertions.assertEquals("project", result.getKey());
+        final Value value = result.getValue();
+        Assertions.assertTrue(value instanceof Array);
+        final Array array = (Array) value;
+        Assertions.assertEquals(4, array.size());
+        Assertions.assertEquals(new Pair("first", new Text("A")), array.getValue(0));
+        Assertions.assertEquals(new Pair("name", new Text("Main")), array.getValue(1));
+        Assertions.assertEquals(new Pair("second", new Text("B")), array.getValue(2));
+        Assertions.assertEquals(new Pair("stage", new Text("2")), array.getValue(3));
+    }
+
+    /**
+     * Test a file that consists of the list of included files only.
+     * @param dir The temporary directory
+     */
+    @Test
+    void testIncludeOnly(@TempDir final Path dir) throws IOException, BaseException {
+        Files.write(dir.resolve("a.yml"), Arrays.asList("project:", "  name: First"));
+        Files.write(dir.resolve("b.yml"), Arrays.asList("project:", "  name: Second"));
+        Files.write(
+            dir.resolve("all.yml"),
+            Arrays.asList("include:", "  - b.yml", "  - a.yml")
+        );
+        final Pair result = new IrLoader(new IrCache(4)).load(dir.resolve("all.yml").toFile());
+        Assertions.assertEquals(
+            new Pair("project", new Pair("name", new Text("First"))),
+            result
+        );
+    }
+
+    /**
+     * Test that a cyclic include is reported.
+     * @param dir The temporary directory
+     */
+    @Test
+    void testCyclicInclude(@TempDir final Path dir) throws IOException {
+        Files.write(dir.resolve("a.yml"), Arrays.asList("include: b.yml", "project:", "  a: 1"));
+        Files.write(dir.resolve("b.yml"), Arrays.asList("include: a.yml", "project:", "  b: 2"));
+        boolean caught = false;
+        try {
+            new IrLoader(new IrCache(4)).load(dir.resolve("a.yml").toFile());
+        } catch (final CyclicInclude exception) {
+            caught = true;
+        } catch (final BaseException exception) {
+            caught = false;
+        }
+        Assertions.assertTrue(caught);
+    }
+
+    /**
+     * Test that errors of included files loaded by worker threads are rethrown
+     * as they are, when one of many sibling includes fails.
+     * @param dir The temporary directory
+     */
+    @Test
+    void testErrorOfSiblingInclude(@TempDir final Path dir) throws IOException {
+        final List<String> lines = new LinkedList<>();
+        lines.add("include:");
+        for (int idx = 0; idx < IrLoaderTest.SIBLINGS; idx += 1) {
+            final String name = String.format("part%02d.yml", idx);
+            Files.write(
+                dir.resolve(name),
+                Arrays.asList("project:", String.format("  key%d: %d", idx, idx))
+            );
+            lines.add(String.format("  - %s", name));
+        }
+        lines.add("  - cycle.yml");
+        Files.write(dir.resolve("cyclic.yml"), lines);
+        Files.write(dir.resolve("cycle.yml"), Collections.singletonList("include: cyclic.yml"));
+        lines.set(lines.size() - 1, "  - absent.yml");
+        Files.write(dir.resolve("broken.yml"), lines);
+        for (int run = 0; run < IrLoaderTest.RUNS; run += 1) {
+            Assertions.assertTrue(
+                IrLoaderTest.loadFailing(dir.resolve("cyclic.yml").toFile())
+                    instanceof CyclicInclude
+            );
+            Assertions.assertTrue(
+                IrLoaderTest.loadFailing(dir.resolve("broken.yml").toFile())
+                    instanceof IOException
+            );
+        }
+    }
+
+    /**
+     * Loads the file that is expected to fail.
+     * @param file The file
+     * @return The thrown exception or {@code null} if the file is loaded
+     */
+    private static Exception loadFailing(final File file) {
+        Exception result = null;
+        try {
+            new IrLoader(new IrCache(1)).load(file);
+        } catch (final IOException | BaseException exception) {
+            result = exception;
+        }
+        return result;
+    }
+}
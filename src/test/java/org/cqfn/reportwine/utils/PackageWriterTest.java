@@ -0,0 +1,167 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.reportwine.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.zip.ZipEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.docx4j.TraversalUtil;
+import org.docx4j.dml.CTRegularTextRun;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.packages.PresentationMLPackage;
+import org.docx4j.openpackaging.parts.PartName;
+import org.docx4j.openpackaging.parts.PresentationML.SlidePart;
+import org.docx4j.openpackaging.parts.WordprocessingML.BinaryPart;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pptx4j.Pptx4jException;
+
+/**
+ * Test for {@link PackageWriter} class.
+ *
+ * @since 0.1
+ */
+class PackageWriterTest {
+    /**
+     * The template for testing.
+     */
+    private static final String TEMPLATE = "src/test/sample/complex_template.pptx";
+
+    /**
+     * Test that only the changed slide is written again, and other parts are
+     * copied from the template as they are.
+     * @param dir The temporary directory
+     */
+    @Test
+    void testUnchangedPartsAreCopied(@TempDir final Path dir)
+        throws IOException, Docx4JException, Pptx4jException {
+        final File template = new File(PackageWriterTest.TEMPLATE);
+        final PresentationMLPackage pptx = PresentationMLPackage.load(template);
+        final SlidePart slide = pptx.getMainPresentationPart().getSlide(0);
+        final ClassFinder finder = new ClassFinder(CTRegularTextRun.class);
+        new TraversalUtil(
+            slide.getJaxbElement().getCSld().getSpTree().getSpOrGrpSpOrGraphicFrame(),
+            finder
+        );
+        for (final Object run : finder.getObjects()) {
+            ((CTRegularTextRun) run).setT("Changed");
+        }
+        final String name = slide.getPartName().getName().substring(1);
+        final File output = dir.resolve("result.pptx").toFile();
+        new PackageWriter(template).save(pptx, output);
+        int copied = 0;
+        try (ZipFile source = ZipFile.builder().setFile(template).get();
+            ZipFile result = ZipFile.builder().setFile(output).get()) {
+            final Enumeration<ZipArchiveEntry> entries = result.getEntries();
+            while (entries.hasMoreElements()) {
+                final ZipArchiveEntry entry = entries.nextElement();
+                final ZipArchiveEntry original = source.getEntry(entry.getName());
+                if (name.equals(entry.getName())) {
+                    Assertions.assertNotEquals(original.getCrc(), entry.getCrc());
+                } else if (original != null && original.getCrc() == entry.getCrc()) {
+                    Assertions.assertEquals(
+                        original.getCompressedSize(), entry.getCompressedSize()
+                    );
+                    copied += 1;
+                }
+            }
+        }
+        Assertions.assertTrue(copied > 0);
+        final PresentationMLPackage loaded = PresentationMLPackage.load(output);
+        Assertions.assertEquals(
+            pptx.getMainPresentationPart().getSlideCount(),
+            loaded.getMainPresentationPart().getSlideCount()
+        );
+    }
+
+    /**
+     * Test that rewritten parts are stored without compression in the stored mode,
+     * and the result is still a valid document.
+     * @param dir The temporary directory
+     */
+    @Test
+    void testStoredCompression(@TempDir final Path dir)
+        throws IOException, Docx4JException, Pptx4jException {
+        final File template = new File(PackageWriterTest.TEMPLATE);
+        final PresentationMLPackage pptx = PresentationMLPackage.load(template);
+        final SlidePart slide = pptx.getMainPresentationPart().getSlide(0);
+        Assertions.assertNotNull(slide.getJaxbElement());
+        final String name = slide.getPartName().getName().substring(1);
+        final File output = dir.resolve("result.pptx").toFile();
+        new PackageWriter(template, Compression.STORED).save(pptx, output);
+        try (ZipFile result = ZipFile.builder().setFile(output).get()) {
+            final ZipArchiveEntry entry = result.getEntry(name);
+            Assertions.assertEquals(ZipEntry.STORED, entry.getMethod());
+            Assertions.assertEquals(entry.getSize(), entry.getCompressedSize());
+        }
+        Assertions.assertEquals(
+            pptx.getMainPresentationPart().getSlideCount(),
+            PresentationMLPackage.load(output).getMainPresentationPart().getSlideCount()
+        );
+    }
+
+    /**
+     * Test that a renamed part that was not changed is copied from the template
+     * under the new name, and the previous name is not found anymore.
+     * @param dir The temporary directory
+     */
+    @Test
+    void testRenamedPartIsCopied(@TempDir final Path dir)
+        throws IOException, Docx4JException {
+        final File template = new File(PackageWriterTest.TEMPLATE);
+        final String previous = "docProps/thumbnail.jpeg";
+        final String next = "docProps/preview.jpeg";
+        final PassthroughPartStore store =
+            new PassthroughPartStore(template, Compression.DEFAULT);
+        final File output = dir.resolve("result.zip").toFile();
+        try (OutputStream stream = Files.newOutputStream(output.toPath())) {
+            store.rename(new PartName("/".concat(previous)), new PartName("/".concat(next)));
+            Assertions.assertNull(store.loadPart(previous));
+            try (InputStream part = store.loadPart(next)) {
+                Assertions.assertNotNull(part);
+            }
+            store.setOutputStream(stream);
+            store.saveBinaryPart(new BinaryPart(new PartName("/".concat(next))));
+            store.finishSave();
+        } finally {
+            store.dispose();
+        }
+        try (ZipFile source = ZipFile.builder().setFile(template).get();
+            ZipFile result = ZipFile.builder().setFile(output).get()) {
+            final ZipArchiveEntry original = source.getEntry(previous);
+            final ZipArchiveEntry entry = result.getEntry(next);
+            Assertions.assertNull(result.getEntry(previous));
+            Assertions.assertEquals(original.getCrc(), entry.getCrc());
+            Assertions.assertEquals(original.getCompressedSize(), entry.getCompressedSize());
+        }
+    }
+}
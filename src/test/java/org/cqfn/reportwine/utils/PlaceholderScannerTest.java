@@ -0,0 +1,86 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.reportwine.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link PlaceholderScanner} class.
+ *
+ * @since 0.1
+ */
+class PlaceholderScannerTest {
+    /**
+     * Test finding of all placeholders in a text.
+     */
+    @Test
+    void testAllPlaceholdersFound() {
+        final String text = "Team ${team.name}: ${team.lead}, ${${team.size}} people";
+        final PlaceholderScanner scanner = new PlaceholderScanner(text);
+        final List<String> names = new ArrayList<>();
+        while (scanner.next()) {
+            names.add(text.substring(scanner.getNameStart(), scanner.getNameEnd()));
+            Assertions.assertEquals('$', text.charAt(scanner.getStart()));
+            Assertions.assertEquals('}', text.charAt(scanner.getEnd() - 1));
+        }
+        Assertions.assertEquals(3, names.size());
+        Assertions.assertEquals("team.name", names.get(0));
+        Assertions.assertEquals("team.lead", names.get(1));
+        Assertions.assertEquals("team.size", names.get(2));
+    }
+
+    /**
+     * Test that texts without complete placeholders are not treated as candidates.
+     */
+    @Test
+    void testNoPlaceholders() {
+        Assertions.assertFalse(PlaceholderScanner.contains("Price: $100"));
+        Assertions.assertFalse(PlaceholderScanner.contains("Empty ${} name"));
+        Assertions.assertFalse(PlaceholderScanner.contains("Not closed ${name"));
+        Assertions.assertFalse(PlaceholderScanner.contains("Braces {name}"));
+        Assertions.assertTrue(PlaceholderScanner.contains("${name}"));
+    }
+
+    /**
+     * Test that names of placeholders consist of the characters allowed by YARG.
+     */
+    @Test
+    void testNameCharacters() {
+        Assertions.assertTrue(PlaceholderScanner.contains("${team.members[0]}"));
+        Assertions.assertTrue(PlaceholderScanner.contains("${band#field_1}"));
+        Assertions.assertFalse(PlaceholderScanner.contains("${first name}"));
+        Assertions.assertFalse(PlaceholderScanner.contains("${a-b}"));
+        Assertions.assertFalse(PlaceholderScanner.contains("${\u0438\u043c\u044f}"));
+        final String text = "${first name} and ${last}";
+        final PlaceholderScanner scanner = new PlaceholderScanner(text);
+        Assertions.assertTrue(scanner.next());
+        Assertions.assertEquals(
+            "last", text.substring(scanner.getNameStart(), scanner.getNameEnd())
+        );
+        Assertions.assertFalse(scanner.next());
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.cqfn.reportwine.utils;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.docx4j.TraversalUtil;
+import org.docx4j.dml.CTRegularTextRun;
+import org.docx4j.dml.CTTable;
+import org.docx4j.dml.CTTableCell;
+import org.docx4j.dml.CTTableRow;
+import org.docx4j.dml.CTTextBody;
+import org.docx4j.dml.CTTextCharacterProperties;
+import org.docx4j.dml.CTTextLineBreak;
+import org.docx4j.dml.CTTextParagraph;
+import org.docx4j.dml.ObjectFactory;
+import org.docx4j.openpackaging.packages.PresentationMLPackage;
+import org.docx4j.openpackaging.parts.PresentationML.SlidePart;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link PptxTemplateCache} class.
+ *
+ * @since 0.1
+ */
+class PptxTemplateCacheTest {
+    /**
+     * The template for testing.
+     */
+    private static final String TEMPLATE = "src/test/sample/complex_template.pptx";
+
+    /**
+     * The factory of DrawingML objects.
+     */
+    private static final ObjectFactory FACTORY = new ObjectFactory();
+
+    /**
+     * Test that runs of paragraphs with placeholders are joined in the compiled template.
+     * @param dir The temporary directory
+     */
+    @Test
+    void testRunsAreJoined(@TempDir final Path dir) throws Exception {
+        final PresentationMLPackage origin =
+            PresentationMLPackage.load(new File(PptxTemplateCacheTest.TEMPLATE));
+        Assertions.assertTrue(PptxTemplateCache.normalize(origin) > 0);
+        final File compiled = new PptxTemplateCache(dir.toFile(), false)
+            .compile(new File(PptxTemplateCacheTest.TEMPLATE));
+        final PresentationMLPackage pptx = PresentationMLPackage.load(compiled);
+        for (final SlidePart slide : pptx.getMainPresentationPart().getSlideParts()) {
+            final TextVisitor visitor = new TextVisitor();
+            new TraversalUtil(
+                slide.getJaxbElement().getCSld().getSpTree().getSpOrGrpSpOrGraphicFrame(),
+                visitor
+            );
+            for (final Map.Entry<CTTextParagraph, String> item
+                : visitor.getMappings().entrySet()) {
+                int joined = 0;
+                for (final Object run : item.getKey().getEGTextRun()) {
+                    if (run instanceof CTRegularTextRun) {
+                        joined += PptxTemplateCacheTest.count(((CTRegularTextRun) run).getT());
+                    }
+                }
+                Assertions.assertEquals(PptxTemplateCacheTest.count(item.getValue()), joined);
+            }
+        }
+        Assertions.assertEquals(0, PptxTemplateCache.normalize(pptx));
+    }
+
+    /**
+     * Test that runs of tables without band names keep their formatting and line breaks,
+     * and only the runs of placeholders and band names are joined.
+     */
+    @Test
+    void testFormattingIsKept() {
+        final CTTable plain = PptxTemplateCacheTest.createTable(
+            PptxTemplateCacheTest.createRun("Na", false),
+            PptxTemplateCacheTest.createRun("me", true),
+            PptxTemplateCacheTest.FACTORY.createCTTextLineBreak(),
+            PptxTemplateCacheTest.createRun("Role", true)
+        );
+        final CTTable band = PptxTemplateCacheTest.createTable(
+            PptxTemplateCacheTest.createRun("##ba", false),
+            PptxTemplateCacheTest.createRun("nd=people ", false),
+            PptxTemplateCacheTest.createRun("Name", true)
+        );
+        final TextVisitor visitor = new TextVisitor();
+        new TraversalUtil(Arrays.asList(plain, band), visitor);
+        Assertions.assertEquals(3, PptxTemplateCache.normalize(visitor));
+        final List<Object> head = PptxTemplateCacheTest.getRuns(plain, 0);
+        Assertions.assertEquals(4, head.size());
+        Assertions.assertEquals("me", ((CTRegularTextRun) head.get(1)).getT());
+        Assertions.assertTrue(((CTRegularTextRun) head.get(1)).getRPr().isB());
+        Assertions.assertTrue(head.get(2) instanceof CTTextLineBreak);
+        final List<Object> marker = PptxTemplateCacheTest.getRuns(band, 0);
+        Assertions.assertEquals(2, marker.size());
+        Assertions.assertEquals("##band=people ", ((CTRegularTextRun) marker.get(0)).getT());
+        Assertions.assertTrue(((CTRegularTextRun) marker.get(1)).getRPr().isB());
+        final List<Object> fields = PptxTemplateCacheTest.getRuns(plain, 1);
+        Assertions.assertEquals(4, fields.size());
+        Assertions.assertEquals("${name}", ((CTRegularTextRun) fields.get(0)).getT());
+        Assertions.assertEquals("s", ((CTRegularTextRun) fields.get(1)).getT());
+        Assertions.assertTrue(((CTRegularTextRun) fields.get(1)).getRPr().isB());
+        Assertions.assertEquals(
+            String.format("${name}s%s${role}", System.lineSeparator()),
+            TextVisitor.concatParams(fields)
+        );
+        Assertions.assertEquals(0, PptxTemplateCache.normalize(visitor));
+    }
+
+    /**
+     * Test that the template is compiled again only if it is changed.
+     * @param dir The temporary directory
+     */
+    @Test
+    void testCompiledTemplateIsReused(@TempDir final Path dir) throws Exception {
+        final Path file = dir.resolve("template.pptx");
+        Files.copy(new File(PptxTemplateCacheTest.TEMPLATE).toPath(), file);
+        final PptxTemplateCache cache =
+            new PptxTemplateCache(dir.resolve("cache").toFile(), false);
+        final File first = cache.compile(file.toFile());
+        Assertions.assertTrue(first.exists());
+        Assertions.assertEquals(first, cache.compile(file.toFile()));
+        Assertions.assertTrue(file.toFile().setLastModified(first.lastModified() + 5000));
+        final File second = cache.compile(file.toFile());
+        Assertions.assertNotEquals(first, second);
+        Assertions.assertTrue(second.exists());
+    }
+
+    /**
+     * Counts placeholders in the text.
+     * @param text The text
+     * @return The number of placeholders
+     */
+    private static int count(final String text) {
+        final PlaceholderScanner scanner = new PlaceholderScanner(String.valueOf(text));
+        int result = 0;
+        while (scanner.next()) {
+            result += 1;
+        }
+        return result;
+    }
+
+    /**
+     * Creates a table with the head cell of the specified runs and a row
+     * with placeholders split between runs.
+     * @param runs The runs of the head cell
+     * @return The table
+     */
+    private static CTTable createTable(final Object... runs) {
+        final CTTable table = PptxTemplateCacheTest.FACTORY.createCTTable();
+        final CTTableRow head = PptxTemplateCacheTest.FACTORY.createCTTableRow();
+        head.getTc().add(PptxTemplateCacheTest.createCell(runs));
+        table.getTr().add(head);
+        final CTTableRow row = PptxTemplateCacheTest.FACTORY.createCTTableRow();
+        row.getTc().add(
+            PptxTemplateCacheTest.createCell(
+                PptxTemplateCacheTest.createRun("${na", false),
+                PptxTemplateCacheTest.createRun("me}", true),
+                PptxTemplateCacheTest.createRun("s", true),
+                PptxTemplateCacheTest.FACTORY.createCTTextLineBreak(),
+                PptxTemplateCacheTest.createRun("${role}", false)
+            )
+        );
+        table.getTr().add(row);
+        return table;
+    }
+
+    /**
+     * Creates a table cell with one paragraph.
+     * @param runs The runs of the paragraph
+     * @return The cell
+     */
+    private static CTTableCell createCell(final Object... runs) {
+        final CTTextParagraph paragraph = PptxTemplateCacheTest.FACTORY.createCTTextParagraph();
+        paragraph.getEGTextRun().addAll(Arrays.asList(runs));
+        final CTTextBody body = PptxTemplateCacheTest.FACTORY.createCTTextBody();
+        body.getP().add(paragraph);
+        final CTTableCell cell = PptxTemplateCacheTest.FACTORY.createCTTableCell();
+        cell.setTxBody(body);
+        return cell;
+    }
+
+    /**
+     * Creates a text run.
+     * @param text The text
+     * @param bold Whether the text is bold
+     * @return The run
+     */
+    private static CTRegularTextRun createRun(final String text, final boolean bold) {
+        final CTTextCharacterProperties properties =
+            PptxTemplateCacheTest.FACTORY.createCTTextCharacterProperties();
+        properties.setB(bold);
+        final CTRegularTextRun run = PptxTemplateCacheTest.FACTORY.createCTRegularTextRun();
+        run.setRPr(properties);
+        run.setT(text);
+        return run;
+    }
+
+    /**
+     * Returns the runs of the paragraph of the first cell of the row.
+     * @param table The table
+     * @param index The index of the row
+     * @return The runs
+     */
+    private static List<Object> getRuns(final CTTable table, final int index) {
+        return table.getTr().get(index).getTc().get(0).getTxBody().getP().get(0)
+            .getEGTextRun();
+    }
+}
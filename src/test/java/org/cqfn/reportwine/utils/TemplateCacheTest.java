@@ -0,0 +1,74 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2022 Polina Volkhontseva
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.cqfn.reportwine.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.docx4j.openpackaging.exceptions.Docx4JException;
+import org.docx4j.openpackaging.packages.WordprocessingMLPackage;
+import org.docx4j.openpackaging.parts.WordprocessingML.MainDocumentPart;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link TemplateCache} class.
+ *
+ * @since 0.1
+ */
+class TemplateCacheTest {
+    /**
+     * The template for testing.
+     */
+    private static final String TEMPLATE = "src/test/sample/simple_template.docx";
+
+    /**
+     * Test that each copy of a cached template can be modified independently.
+     * @param dir The temporary directory
+     */
+    @Test
+    void testCopiesAreIndependent(@TempDir final Path dir)
+        throws IOException, Docx4JException {
+        final Path file = dir.resolve("template.docx");
+        Files.copy(new File(TemplateCacheTest.TEMPLATE).toPath(), file);
+        final TemplateCache cache = new TemplateCache(2, false);
+        final WordprocessingMLPackage first = cache.load(file.toFile()).getDocument();
+        final MainDocumentPart part = first.getMainDocumentPart();
+        final int size = part.getContent().size();
+        part.addParagraphOfText("Added");
+        final WordprocessingMLPackage second = cache.load(file.toFile()).getDocument();
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals(size, second.getMainDocumentPart().getContent().size());
+        Assertions.assertEquals(size + 1, part.getContent().size());
+        final File output = dir.resolve("result.docx").toFile();
+        second.save(output);
+        Assertions.assertEquals(
+            size,
+            WordprocessingMLPackage.load(output).getMainDocumentPart().getContent().size()
+        );
+    }
+}